@@ -0,0 +1,86 @@
+package com.betoniarka.biblioteka.benchmark;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.borrow.Borrow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AppUser#getCurrentBorrows} and {@link AppUser#borrowBook} for users with a long borrow
+ * history, most of it returned.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppUserBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int history;
+
+    AppUser user;
+    Book book;
+
+    @Setup
+    public void setup() {
+        user = new AppUser(1);
+        user.setUsername("reader");
+        for (int i = 0; i < history; i++) {
+            var past = new Book(i + 2);
+            past.setTitle("Book " + i);
+            var borrow = new Borrow(i + 1);
+            borrow.setBorrowDuration(Duration.ofDays(14));
+            // the two most recent borrows are still out and count towards the limit
+            if (i < history - 2) {
+                borrow.setAppUser(user);
+                borrow.setBook(past);
+                borrow.setReturnedAt(Instant.EPOCH.plus(Duration.ofDays(i + 7)));
+                user.getBorrows().add(borrow);
+            } else {
+                user.borrowBook(borrow, past, List.of());
+            }
+            borrow.setBorrowedAt(Instant.EPOCH.plus(Duration.ofDays(i)));
+        }
+
+        book = new Book(1);
+        book.setTitle("Lalka");
+        book.setCount(1);
+    }
+
+    @Benchmark
+    public List<Borrow> getCurrentBorrows() {
+        return user.getCurrentBorrows();
+    }
+
+    /**
+     * Borrows, returns and then drops the new borrow again, so every invocation sees the same user
+     * and active borrow count.
+     */
+    @Benchmark
+    public Borrow borrowBook() {
+        var borrow = new Borrow();
+        borrow.setBorrowDuration(Duration.ofDays(14));
+        user.borrowBook(borrow, book, List.of());
+        user.returnBook(borrow);
+        user.getBorrows().removeLast();
+        book.getBorrowedBy().removeLast();
+        return borrow;
+    }
+}
@@ -0,0 +1,63 @@
+package com.betoniarka.biblioteka.benchmark;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.book.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * {@link Book#isAvailableForUser} against queues of growing length. Only the head of the queue, one
+ * entry per copy, is handed to the check, so its cost should not grow with {@code queueLength}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookBenchmark {
+
+    private static final int COPIES = 2;
+
+    @Param({"0", "10", "100", "1000"})
+    int queueLength;
+
+    Book book;
+    List<Long> queueHead;
+    AppUser headOfQueue;
+    AppUser notQueued;
+
+    @Setup
+    public void setup() {
+        book = new Book(1);
+        book.setTitle("Lalka");
+        book.setCount(COPIES - 1);
+        var queue = LongStream.rangeClosed(1, queueLength).boxed().toList();
+        queueHead = queue.subList(0, Math.min(COPIES, queue.size()));
+        headOfQueue = new AppUser(1);
+        notQueued = new AppUser(-1);
+    }
+
+    @Benchmark
+    public boolean isAvailableForHeadOfQueue() {
+        return book.isAvailableForUser(headOfQueue, queueHead);
+    }
+
+    @Benchmark
+    public boolean isAvailableForUserOutsideQueue() {
+        return book.isAvailableForUser(notQueued, queueHead);
+    }
+}
@@ -0,0 +1,121 @@
+package com.betoniarka.biblioteka.benchmark;
+
+import com.betoniarka.biblioteka.BibliotekaApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of the whole application with platform-thread and virtual-thread request
+ * handling ({@code spring.threads.virtual.enabled}). Each invocation fires {@value #REQUESTS}
+ * concurrent catalogue and report requests over HTTP against a {@link SyntheticLibrary} of 10k
+ * borrows; database access is bounded by {@code BoundedDataSource} in both modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExecutionModeBenchmark {
+
+    static final int REQUESTS = 1000;
+
+    private static final List<String> PATHS =
+            List.of(
+                    "/books?size=20",
+                    "/authors?size=20",
+                    "/categories?size=20",
+                    "/report/book/summary",
+                    "/report/appuser/most-active?limit=10");
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    ConfigurableApplicationContext context;
+    HttpClient client;
+    ExecutorService callers;
+    List<HttpRequest> requests;
+
+    @Setup
+    public void setup() {
+        context =
+                new SpringApplicationBuilder(BibliotekaApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                                "spring.datasource.url=jdbc:h2:mem:benchmark;LOCK_TIMEOUT=10000",
+                                "spring.jpa.show-sql=false",
+                                "logging.level.root=WARN")
+                        .run();
+        SyntheticLibrary.populate(context, 10_000);
+
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        var authorization =
+                "Basic "
+                        + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+        requests =
+                PATHS.stream()
+                        .map(
+                                path ->
+                                        HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                                                .header("Authorization", authorization)
+                                                .build())
+                        .toList();
+
+        callers = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().executor(callers).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        callers.close();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public int concurrentRequests() throws Exception {
+        var responses = new ArrayList<Future<Integer>>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            var request = requests.get(i % requests.size());
+            responses.add(
+                    callers.submit(
+                            () -> client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+        }
+
+        int ok = 0;
+        for (var response : responses) {
+            if (response.get() == 200) {
+                ok++;
+            }
+        }
+        return ok;
+    }
+}
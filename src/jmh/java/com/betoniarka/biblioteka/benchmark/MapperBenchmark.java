@@ -0,0 +1,114 @@
+package com.betoniarka.biblioteka.benchmark;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserMapper;
+import com.betoniarka.biblioteka.appuser.AppUserMapperImpl;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.appuser.dto.AppUserResponseDto;
+import com.betoniarka.biblioteka.author.Author;
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.book.BookMapper;
+import com.betoniarka.biblioteka.book.BookMapperImpl;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.book.dto.BookResponseDto;
+import com.betoniarka.biblioteka.borrow.Borrow;
+import com.betoniarka.biblioteka.borrow.BorrowMapper;
+import com.betoniarka.biblioteka.borrow.BorrowMapperImpl;
+import com.betoniarka.biblioteka.borrow.dto.BorrowResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated MapStruct mappers on the response paths. Only the mapper beans are started, so the
+ * nested mappers of {@link BorrowMapper} are wired exactly as in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    AnnotationConfigApplicationContext context;
+    BookMapper bookMapper;
+    AppUserMapper appUserMapper;
+    BorrowMapper borrowMapper;
+
+    Book book;
+    AppUser user;
+    Borrow borrow;
+    BookCreateDto createDto;
+
+    @Setup
+    public void setup() {
+        context =
+                new AnnotationConfigApplicationContext(
+                        BookMapperImpl.class, AppUserMapperImpl.class, BorrowMapperImpl.class);
+        bookMapper = context.getBean(BookMapper.class);
+        appUserMapper = context.getBean(AppUserMapper.class);
+        borrowMapper = context.getBean(BorrowMapper.class);
+
+        var author = new Author();
+        author.setName("Bolesław Prus");
+        book = new Book(1);
+        book.setTitle("Lalka");
+        book.setCount(3);
+        book.setAuthor(author);
+
+        user = new AppUser(1);
+        user.setUsername("reader");
+        user.setFirstname("Stanisław");
+        user.setLastname("Wokulski");
+        user.setEmail("reader@example.com");
+        user.setRole(AppUserRole.APP_USER);
+
+        borrow = new Borrow(1);
+        borrow.setBook(book);
+        borrow.setAppUser(user);
+        borrow.setBorrowedAt(Instant.EPOCH);
+        borrow.setBorrowDuration(Duration.ofDays(14));
+
+        createDto = new BookCreateDto("Faraon", 2, 1L, Set.of(1L, 2L));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookResponseDto bookToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public Book bookToEntity() {
+        return bookMapper.toEntity(createDto);
+    }
+
+    @Benchmark
+    public AppUserResponseDto appUserToDto() {
+        return appUserMapper.toDto(user);
+    }
+
+    @Benchmark
+    public BorrowResponseDto borrowToDto() {
+        return borrowMapper.toDto(borrow);
+    }
+}
@@ -0,0 +1,132 @@
+package com.betoniarka.biblioteka.benchmark;
+
+import com.betoniarka.biblioteka.BibliotekaApplication;
+import com.betoniarka.biblioteka.report.dto.AppUserSummaryReportDto;
+import com.betoniarka.biblioteka.report.dto.AppUserWithOverdueDto;
+import com.betoniarka.biblioteka.report.dto.BookAvailabilityDto;
+import com.betoniarka.biblioteka.report.dto.BookSummaryReportDto;
+import com.betoniarka.biblioteka.report.dto.BorrowSummaryReportDto;
+import com.betoniarka.biblioteka.report.dto.DeadAppUserAccountDto;
+import com.betoniarka.biblioteka.report.dto.MostActiveAppUserDto;
+import com.betoniarka.biblioteka.report.dto.MostBorrowedBookDto;
+import com.betoniarka.biblioteka.report.dto.MostReviewedBookDto;
+import com.betoniarka.biblioteka.report.service.AppUserReportService;
+import com.betoniarka.biblioteka.report.service.BookReportService;
+import com.betoniarka.biblioteka.report.service.BorrowReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The report services, called directly so {@code ReportCache} is bypassed, over a {@link
+ * SyntheticLibrary} of 10k, 100k and 1M borrows. Every fork starts its own application on an
+ * in-memory database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReportServiceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int borrows;
+
+    ConfigurableApplicationContext context;
+    BookReportService bookReports;
+    BorrowReportService borrowReports;
+    AppUserReportService appUserReports;
+    Instant monthAgo;
+    Instant now;
+
+    @Setup
+    public void setup() {
+        context =
+                new SpringApplicationBuilder(BibliotekaApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "spring.datasource.url=jdbc:h2:mem:benchmark;LOCK_TIMEOUT=10000",
+                                "spring.jpa.show-sql=false",
+                                "logging.level.root=WARN")
+                        .run();
+        SyntheticLibrary.populate(context, borrows);
+
+        bookReports = context.getBean(BookReportService.class);
+        borrowReports = context.getBean(BorrowReportService.class);
+        appUserReports = context.getBean(AppUserReportService.class);
+        now = Instant.now();
+        monthAgo = now.minus(Duration.ofDays(30));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookSummaryReportDto bookSummary() {
+        return bookReports.getSummary();
+    }
+
+    @Benchmark
+    public List<BookAvailabilityDto> bookAvailability() {
+        return bookReports.getAvailability();
+    }
+
+    @Benchmark
+    public List<MostReviewedBookDto> mostReviewedBooks() {
+        return bookReports.getMostReviewed(10);
+    }
+
+    @Benchmark
+    public BorrowSummaryReportDto borrowSummary() {
+        return borrowReports.getSummary();
+    }
+
+    @Benchmark
+    public List<MostBorrowedBookDto> mostBorrowedAllTime() {
+        return borrowReports.getMostBorrowed(10, null, null);
+    }
+
+    @Benchmark
+    public List<MostBorrowedBookDto> mostBorrowedLastMonth() {
+        return borrowReports.getMostBorrowed(10, monthAgo, now);
+    }
+
+    @Benchmark
+    public AppUserSummaryReportDto appUserSummary() {
+        return appUserReports.getSummary();
+    }
+
+    @Benchmark
+    public List<AppUserWithOverdueDto> overdueAppUsers() {
+        return appUserReports.getOverdue();
+    }
+
+    @Benchmark
+    public List<MostActiveAppUserDto> mostActiveAppUsers() {
+        return appUserReports.getMostActive(10);
+    }
+
+    @Benchmark
+    public List<DeadAppUserAccountDto> deadAppUsers() {
+        return appUserReports.getDead(30);
+    }
+}
@@ -0,0 +1,116 @@
+package com.betoniarka.biblioteka.benchmark;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserService;
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.borrow.Borrow;
+import com.betoniarka.biblioteka.report.ranking.RankingService;
+import com.betoniarka.biblioteka.statistics.BorrowRollupService;
+import com.betoniarka.biblioteka.statistics.LibraryStatisticsService;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Fills a freshly started application with a synthetic library of a given number of borrows, about
+ * 20 per user and 50 per book, spread over the last year. Rows are generated inside the database
+ * with {@code SYSTEM_RANGE}, copying column values from one borrow saved through JPA so no JDBC type
+ * mapping has to be guessed.
+ */
+final class SyntheticLibrary {
+
+    private static final int CHUNK = 100_000;
+    private static final int MINUTES_PER_YEAR = 365 * 24 * 60;
+
+    private SyntheticLibrary() {
+    }
+
+    static void populate(ApplicationContext context, int borrows) {
+        var jdbc = context.getBean(JdbcTemplate.class);
+        var transactions = context.getBean(TransactionTemplate.class);
+        var entityManager = context.getBean(EntityManager.class);
+        int users = Math.max(borrows / 20, 10);
+        int books = Math.max(borrows / 50, 10);
+
+        long firstUser =
+                transactions.execute(
+                        status -> {
+                            jdbc.update(
+                                    """
+                                            insert into app_user (username, email, password, role)
+                                            select 'bench' || x, 'bench' || x || '@example.com', 'x', 'APP_USER'
+                                            from system_range(1, ?)""",
+                                    users);
+                            return jdbc.queryForObject(
+                                    "select min(id) from app_user where username like 'bench%'", Long.class);
+                        });
+        long firstBook =
+                transactions.execute(
+                        status -> {
+                            long first = jdbc.queryForObject("select coalesce(max(id), 0) + 1 from book", Long.class);
+                            jdbc.update(
+                                    """
+                                            insert into book (id, title, count, last_modified)
+                                            select ? + x - 1, 'Benchmark book ' || x, mod(x, 4), current_timestamp
+                                            from system_range(1, ?)""",
+                                    first,
+                                    books);
+                            return first;
+                        });
+
+        long template =
+                transactions.execute(
+                        status -> {
+                            var borrow = new Borrow();
+                            borrow.setAppUser(entityManager.getReference(AppUser.class, firstUser));
+                            borrow.setBook(entityManager.getReference(Book.class, firstBook));
+                            borrow.setBorrowedAt(Instant.now());
+                            borrow.setBorrowDuration(Duration.ofDays(14));
+                            entityManager.persist(borrow);
+                            entityManager.flush();
+                            return borrow.getId();
+                        });
+
+        // Borrowed up to a year ago, returned 1-21 days later (some overdue), every tenth still out.
+        for (int chunk = 1; chunk < borrows; chunk += CHUNK) {
+            int from = chunk;
+            int to = Math.min(chunk + CHUNK - 1, borrows - 1);
+            transactions.executeWithoutResult(
+                    status ->
+                            jdbc.update(
+                                    """
+                                            insert into borrowed_book
+                                                (borrowed_at, returned_at, borrow_duration, app_user_id, book_id)
+                                            select
+                                                dateadd(minute, -mod(r.x * 7919, ?), t.borrowed_at),
+                                                case when mod(r.x, 10) = 0 then null
+                                                     else least(
+                                                         dateadd(minute, 1440 * (1 + mod(r.x, 21)) - mod(r.x * 7919, ?), t.borrowed_at),
+                                                         t.borrowed_at)
+                                                end,
+                                                t.borrow_duration,
+                                                ? + mod(r.x, ?),
+                                                ? + mod(r.x * 31, ?)
+                                            from system_range(?, ?) r cross join borrowed_book t
+                                            where t.id = ?""",
+                                    MINUTES_PER_YEAR,
+                                    MINUTES_PER_YEAR,
+                                    firstUser,
+                                    users,
+                                    firstBook,
+                                    books,
+                                    from,
+                                    to,
+                                    template));
+        }
+
+        context.getBean(AppUserService.class).rebuildActiveBorrows();
+        context.getBean(LibraryStatisticsService.class).rebuild();
+        context.getBean(BorrowRollupService.class).rebuild();
+        context.getBean(RankingService.class).invalidateAll();
+    }
+}
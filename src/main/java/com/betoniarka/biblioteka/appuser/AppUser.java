@@ -2,6 +2,7 @@ package com.betoniarka.biblioteka.appuser;
 
 import com.betoniarka.biblioteka.book.Book;
 import com.betoniarka.biblioteka.borrow.Borrow;
+import com.betoniarka.biblioteka.exceptions.BorrowNotAllowedException;
 import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
 import com.betoniarka.biblioteka.notifications.Notification;
 import com.betoniarka.biblioteka.queueentry.QueueEntry;
@@ -10,11 +11,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Entity
 @Table(name = "app_user")
@@ -32,6 +36,15 @@ public class AppUser {
     @Getter
     @OneToMany(mappedBy = "appUser", cascade = CascadeType.ALL)
     private final List<Notification> notifications = new ArrayList<>();
+    /**
+     * Ids of the books the user has out right now, kept in step with {@link #activeBorrowCount} so
+     * the limit checks in {@link #borrowBook} never walk {@link #borrows}.
+     */
+    @Getter
+    @ElementCollection
+    @CollectionTable(name = "app_user_active_borrow", joinColumns = @JoinColumn(name = "app_user_id"))
+    @Column(name = "book_id")
+    private final Set<Long> borrowedBookIds = new HashSet<>();
 
     @Getter
     @Id
@@ -65,6 +78,10 @@ public class AppUser {
     @Column
     @Enumerated(EnumType.STRING)
     private AppUserRole role;
+    @Getter
+    @Column(name = "active_borrow_count", nullable = false)
+    @ColumnDefault("0")
+    private int activeBorrowCount;
 
     public AppUser() {
     }
@@ -74,32 +91,42 @@ public class AppUser {
         this.id = id;
     }
 
-    public void borrowBook(Borrow borrow, Book book) {
-        if (getCurrentBorrows().size() >= 3)
-            throw new ResourceConflictException(
+    /**
+     * Records a borrow of a copy the caller has already taken with {@link
+     * com.betoniarka.biblioteka.book.BookRepository#takeCopy}; throwing rolls that back. The caller
+     * also removes the user's queue entry for the book, if any, and holds the user's row lock (see
+     * {@link AppUserRepository#findForUpdateById}) so the limit checks see every other borrow.
+     *
+     * @param queueHead see {@link Book#isAvailableForUser}
+     */
+    public void borrowBook(Borrow borrow, Book book, List<Long> queueHead) {
+        if (this.activeBorrowCount >= 3)
+            throw new BorrowNotAllowedException(
                     "User '%s' already has 3 books borrowed".formatted(this.username));
 
-        if (getCurrentBorrows().stream().anyMatch(b -> b.getBook().equals(book)))
-            throw new ResourceConflictException(
+        if (this.borrowedBookIds.contains(book.getId()))
+            throw new BorrowNotAllowedException(
                     "User '%s' already borrowed book '%s'".formatted(this.username, book.getTitle()));
 
-        if (!book.isAvailableForUser(this)) {
+        if (!book.isAvailableForUser(this, queueHead)) {
             throw new ResourceConflictException(
                     "Book '%s' is reserved by another user (queue)".formatted(book.getTitle()));
         }
 
-        book.removeFromQueue(this);
-
-        book.decrementCount();
-
         borrow.setAppUser(this);
         borrow.setBook(book);
         borrow.setBorrowedAt(Instant.now());
 
         this.borrows.add(borrow);
         book.getBorrowedBy().add(borrow);
+        this.activeBorrowCount++;
+        this.borrowedBookIds.add(book.getId());
     }
 
+    /**
+     * Marks the borrow returned; the copy goes back with {@link
+     * com.betoniarka.biblioteka.book.BookRepository#returnCopy}.
+     */
     public void returnBook(Borrow borrow) {
         if (borrow.getAppUser() != this)
             throw new IllegalStateException(
@@ -108,8 +135,9 @@ public class AppUser {
             throw new ResourceConflictException(
                     "Borrow '%d' is already returned".formatted(borrow.getId()));
 
-        borrow.getBook().incrementCount();
         borrow.setReturnedAt(Instant.now());
+        this.activeBorrowCount--;
+        this.borrowedBookIds.remove(borrow.getBook().getId());
     }
 
     public void joinQueue(QueueEntry entry, Book book) {
@@ -138,6 +166,10 @@ public class AppUser {
         entry.getBook().getQueue().remove(entry);
     }
 
+    /**
+     * Filters the whole borrow history, loading it if needed; prefer {@link #getActiveBorrowCount}
+     * when only the number matters.
+     */
     public List<Borrow> getCurrentBorrows() {
         return this.borrows.stream().filter(b -> !b.isReturned()).toList();
     }
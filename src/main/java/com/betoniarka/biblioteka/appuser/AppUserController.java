@@ -4,18 +4,20 @@ import com.betoniarka.biblioteka.appuser.dto.AppUserAdminUpdateDto;
 import com.betoniarka.biblioteka.appuser.dto.AppUserCreateDto;
 import com.betoniarka.biblioteka.appuser.dto.AppUserResponseDto;
 import com.betoniarka.biblioteka.appuser.dto.AppUserUpdateDto;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
+import com.betoniarka.biblioteka.security.AppUserDetails;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
-
 @RestController
 @RequestMapping(path = "appusers")
 @RequiredArgsConstructor
@@ -25,8 +27,12 @@ public class AppUserController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
-    public List<AppUserResponseDto> getAppUsers() {
-        return service.getAll();
+    public PageResponse<AppUserResponseDto> getAppUsers(
+            @RequestParam(required = false) Long after,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return after == null
+                ? service.getAll(pageable)
+                : service.getAllAfter(new Keyset(after, pageable.getPageSize()));
     }
 
     @GetMapping("/{id}")
@@ -65,19 +71,19 @@ public class AppUserController {
 
     @PatchMapping("/me")
     public AppUserResponseDto updateMe(
-            @AuthenticationPrincipal UserDetails principal,
+            @AuthenticationPrincipal AppUserDetails principal,
             @Valid @RequestBody AppUserUpdateDto requestDto) {
-        return service.nonAdminUpdate(principal.getUsername(), requestDto);
+        return service.nonAdminUpdate(principal.appUserId(), requestDto);
     }
 
     @DeleteMapping(path = "/me")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteMe(@AuthenticationPrincipal UserDetails principal) {
-        service.deleteByUsername(principal.getUsername());
+    public void deleteMe(@AuthenticationPrincipal AppUserDetails principal) {
+        service.deleteById(principal.appUserId());
     }
 
     @GetMapping("/me")
-    public AppUserResponseDto getMe(@AuthenticationPrincipal UserDetails principal) {
-        return service.getByUsername(principal.getUsername());
+    public AppUserResponseDto getMe(@AuthenticationPrincipal AppUserDetails principal) {
+        return service.getById(principal.appUserId());
     }
 }
@@ -0,0 +1,5 @@
+package com.betoniarka.biblioteka.appuser;
+
+/** The columns authentication needs, read without hydrating an {@link AppUser}. */
+public record AppUserCredentials(long id, String username, String password, AppUserRole role) {
+}
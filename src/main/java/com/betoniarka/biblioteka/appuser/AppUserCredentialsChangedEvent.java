@@ -0,0 +1,8 @@
+package com.betoniarka.biblioteka.appuser;
+
+/**
+ * Published by {@link AppUserService} when a user's username, password or role may have changed,
+ * so cached authentications of that user can be dropped.
+ */
+public record AppUserCredentialsChangedEvent(long appUserId) {
+}
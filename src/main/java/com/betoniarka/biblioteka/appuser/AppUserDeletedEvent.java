@@ -0,0 +1,8 @@
+package com.betoniarka.biblioteka.appuser;
+
+/**
+ * Published by {@link AppUserService} right before a user is deleted, inside the same transaction,
+ * so listeners can still read the rows that the delete cascades to.
+ */
+public record AppUserDeletedEvent(long appUserId) {
+}
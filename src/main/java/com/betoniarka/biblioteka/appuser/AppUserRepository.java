@@ -1,12 +1,26 @@
 package com.betoniarka.biblioteka.appuser;
 
+import com.betoniarka.biblioteka.appuser.dto.AppUserResponseDto;
+import com.betoniarka.biblioteka.pagination.KeysetRepository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+public interface AppUserRepository extends JpaRepository<AppUser, Long>, KeysetRepository<AppUser> {
 
     boolean existsByUsername(String username);
 
@@ -17,4 +31,111 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
     boolean existsByEmailAndIdNot(String email, Long id);
 
     Optional<AppUser> findByUsername(String username);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.appuser.AppUserCredentials(
+                        u.id, u.username, u.password, u.role)
+                    from AppUser u
+                    where u.username = :username""")
+    Optional<AppUserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    // Read endpoints
+
+    @Query(
+            value =
+                    """
+                            select new com.betoniarka.biblioteka.appuser.dto.AppUserResponseDto(
+                                u.id, u.username, u.firstname, u.lastname, u.email, u.role)
+                            from AppUser u""",
+            countQuery = "select count(u) from AppUser u")
+    Page<AppUserResponseDto> findResponses(Pageable pageable);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.appuser.dto.AppUserResponseDto(
+                        u.id, u.username, u.firstname, u.lastname, u.email, u.role)
+                    from AppUser u
+                    where u.id > :id
+                    order by u.id""")
+    List<AppUserResponseDto> findResponsesByIdGreaterThan(@Param("id") long id, Limit limit);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.appuser.dto.AppUserResponseDto(
+                        u.id, u.username, u.firstname, u.lastname, u.email, u.role)
+                    from AppUser u
+                    where u.id = :id""")
+    Optional<AppUserResponseDto> findResponseById(@Param("id") long id);
+
+    /**
+     * Loads the user with its row locked until the transaction ends, serializing borrows and
+     * returns of the same user so {@link AppUser#getActiveBorrowCount} stays exact. Taken before
+     * any book row, in every transaction that locks both.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from AppUser u where u.id = :id")
+    Optional<AppUser> findForUpdateById(@Param("id") long id);
+
+    // Active borrows of a deleted book; the borrows themselves go with the book
+
+    /**
+     * Locks the users with an active borrow of the book, in id order, so a book delete takes them
+     * before the book like borrows and returns do.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+            """
+                    select u from AppUser u
+                    where exists (
+                        select 1 from Borrow b
+                        where b.appUser = u and b.book.id = :bookId and b.returnedAt is null)
+                    order by u.id""")
+    List<AppUser> findActiveBorrowersOfBookForUpdate(@Param("bookId") long bookId);
+
+    @Modifying
+    @Query(
+            """
+                    update AppUser u
+                    set u.activeBorrowCount = u.activeBorrowCount - 1
+                    where exists (
+                        select 1 from Borrow b
+                        where b.appUser = u and b.book.id = :bookId and b.returnedAt is null)""")
+    int releaseActiveBorrowsOfBook(@Param("bookId") long bookId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from app_user_active_borrow where book_id = :bookId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "app_user_active_borrow"))
+    int deleteActiveBorrowedBookIds(@Param("bookId") long bookId);
+
+    // Active borrows recomputed from borrowed_book by AppUserService#rebuildActiveBorrows
+
+    /** Locks every user row, in id order like any other transaction that locks several users. */
+    @Query(nativeQuery = true, value = "select id from app_user order by id for update")
+    List<Long> lockAllIds();
+
+    @Modifying
+    @Query(
+            """
+                    update AppUser u
+                    set u.activeBorrowCount = (
+                        select count(b) from Borrow b where b.appUser = u and b.returnedAt is null)""")
+    int recountActiveBorrows();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from app_user_active_borrow")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "app_user_active_borrow"))
+    int deleteAllActiveBorrowedBookIds();
+
+    @Modifying
+    @Query(
+            nativeQuery = true,
+            value =
+                    """
+                            insert into app_user_active_borrow (app_user_id, book_id)
+                            select distinct app_user_id, book_id
+                            from borrowed_book
+                            where returned_at is null""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "app_user_active_borrow"))
+    int insertActiveBorrowedBookIds();
 }
@@ -1,32 +1,49 @@
 package com.betoniarka.biblioteka.appuser;
 
 import com.betoniarka.biblioteka.appuser.dto.*;
+import com.betoniarka.biblioteka.book.BookDeletedEvent;
 import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
 import com.betoniarka.biblioteka.exceptions.ResourceNotFoundException;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
+import com.betoniarka.biblioteka.pagination.SortProperties;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.function.Function;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class AppUserService {
 
+    private static final SortProperties SORTABLE = new SortProperties("id", "username", "firstname", "lastname", "email", "role");
+
     private final AppUserRepository repository;
     private final AppUserMapper mapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PageResponse<AppUserResponseDto> getAll(Pageable pageable) {
+        return PageResponse.of(repository.findResponses(SORTABLE.check(pageable)));
+    }
 
-    public List<AppUserResponseDto> getAll() {
-        return repository.findAll().stream().map(mapper::toDto).toList();
+    public PageResponse<AppUserResponseDto> getAllAfter(Keyset keyset) {
+        var rows = repository.findResponsesByIdGreaterThan(keyset.after(), keyset.limit());
+        return PageResponse.of(rows, keyset, AppUserResponseDto::id, Function.identity());
     }
 
     public AppUserResponseDto getById(Long id) {
         return repository
-                .findById(id)
-                .map(mapper::toDto)
+                .findResponseById(id)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("AppUser with id '%d' not found".formatted(id)));
     }
@@ -65,12 +82,15 @@ public class AppUserService {
 
         mapper.update(updateDto, existingEntity, passwordEncoder.encode(updateDto.password()));
         var savedEntity = repository.save(existingEntity);
+        eventPublisher.publishEvent(new AppUserCredentialsChangedEvent(id));
         return mapper.toDto(savedEntity);
     }
 
+    /** Locks the user before the statistics delta, in the order borrows take them. */
     public void deleteById(Long id) {
-        if (!repository.existsById(id))
+        if (repository.findForUpdateById(id).isEmpty())
             throw new ResourceNotFoundException("AppUser with id '%d' not found".formatted(id));
+        eventPublisher.publishEvent(new AppUserDeletedEvent(id));
         repository.deleteById(id);
     }
 
@@ -78,35 +98,29 @@ public class AppUserService {
         return create(mapper.toCreateDto(registerDto));
     }
 
-    public AppUserResponseDto nonAdminUpdate(String username, AppUserUpdateDto updateDto) {
-        var existingEntity =
-                repository
-                        .findByUsername(username)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "AppUser with username '%s' not found".formatted(username)));
-        return adminUpdate(existingEntity.getId(), mapper.toAdminUpdateDto(updateDto));
+    public AppUserResponseDto nonAdminUpdate(long id, AppUserUpdateDto updateDto) {
+        return adminUpdate(id, mapper.toAdminUpdateDto(updateDto));
     }
 
-    public AppUserResponseDto getByUsername(String username) {
-        return repository
-                .findByUsername(username)
-                .map(mapper::toDto)
-                .orElseThrow(
-                        () ->
-                                new ResourceNotFoundException(
-                                        "AppUser with username '%s' not found".formatted(username)));
+    /** Runs before the book and its borrows are deleted, while the active ones can still be found. */
+    @EventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        long bookId = event.book().getId();
+        repository.releaseActiveBorrowsOfBook(bookId);
+        repository.deleteActiveBorrowedBookIds(bookId);
     }
 
-    public void deleteByUsername(String username) {
-        deleteById(
-                repository
-                        .findByUsername(username)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "AppUser with username '%s' not found".formatted(username)))
-                        .getId());
+    /**
+     * Recomputes every user's active borrows from {@code borrowed_book}, repairing counts that drifted
+     * from the borrow history, e.g. after rows were written or fixed by hand. Every user row is locked
+     * first, so a borrow or return either commits before the recount or waits for it.
+     */
+    @Scheduled(cron = "${library.statistics.reconcileCron:0 0 3 * * *}")
+    public void rebuildActiveBorrows() {
+        repository.lockAllIds();
+        repository.recountActiveBorrows();
+        repository.deleteAllActiveBorrowedBookIds();
+        repository.insertActiveBorrowedBookIds();
+        log.info("Active borrows rebuilt.");
     }
 }
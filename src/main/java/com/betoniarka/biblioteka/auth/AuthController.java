@@ -2,10 +2,14 @@ package com.betoniarka.biblioteka.auth;
 
 import com.betoniarka.biblioteka.appuser.AppUserService;
 import com.betoniarka.biblioteka.appuser.dto.AppUserRegisterDto;
+import com.betoniarka.biblioteka.auth.dto.AuthTokenResponseDto;
+import com.betoniarka.biblioteka.security.AppUserDetails;
+import com.betoniarka.biblioteka.security.AuthTokenService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -14,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AppUserService appUserService;
+    private final AuthTokenService tokenService;
 
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -25,4 +30,10 @@ public class AuthController {
     public String login(Authentication authentication) {
         return "Logged in as " + authentication.getName();
     }
+
+    /** Exchanges the Basic credentials of the request for a bearer token. */
+    @PostMapping("/login")
+    public AuthTokenResponseDto issueToken(@AuthenticationPrincipal AppUserDetails principal) {
+        return tokenService.issue(principal);
+    }
 }
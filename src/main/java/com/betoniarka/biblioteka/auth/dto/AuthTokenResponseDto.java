@@ -0,0 +1,6 @@
+package com.betoniarka.biblioteka.auth.dto;
+
+import java.time.Instant;
+
+public record AuthTokenResponseDto(String token, String tokenType, Instant expiresAt) {
+}
@@ -5,18 +5,25 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 @Entity
 @Table(name = "author")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
 public class Author {
 
     @Getter
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    @SequenceGenerator(name = "author_seq", sequenceName = "author_seq", allocationSize = 50)
     private long id;
 
     @Getter
@@ -25,12 +32,22 @@ public class Author {
     @NotNull(message = "name is required")
     private String name;
 
+    @Getter
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+
     @OneToMany(mappedBy = "author")
     private List<Book> books = new ArrayList<>();
 
     public Author() {
     }
 
+    @PrePersist
+    @PreUpdate
+    void markModified() {
+        this.lastModified = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
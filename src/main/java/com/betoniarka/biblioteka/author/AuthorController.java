@@ -3,16 +3,20 @@ package com.betoniarka.biblioteka.author;
 import com.betoniarka.biblioteka.author.dto.AuthorCreateDto;
 import com.betoniarka.biblioteka.author.dto.AuthorResponseDto;
 import com.betoniarka.biblioteka.author.dto.AuthorUpdateDto;
+import com.betoniarka.biblioteka.conditional.ConditionalGet;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
-
 @RestController
 @RequestMapping(path = "authors")
 @RequiredArgsConstructor
@@ -21,12 +25,23 @@ public class AuthorController {
     private final AuthorService service;
 
     @GetMapping
-    public List<AuthorResponseDto> getAuthors() {
-        return service.getAll();
+    public PageResponse<AuthorResponseDto> getAuthors(
+            @RequestParam(required = false) Long after,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable,
+            ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, service.getCollectionVersion())) {
+            return null;
+        }
+        return after == null
+                ? service.getAll(pageable)
+                : service.getAllAfter(new Keyset(after, pageable.getPageSize()));
     }
 
     @GetMapping("/{id}")
-    public AuthorResponseDto getAuthorById(@PathVariable Long id) {
+    public AuthorResponseDto getAuthorById(@PathVariable Long id, ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, service.getLastModified(id))) {
+            return null;
+        }
         return service.getById(id);
     }
 
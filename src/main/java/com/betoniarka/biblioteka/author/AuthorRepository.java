@@ -1,6 +1,45 @@
 package com.betoniarka.biblioteka.author;
 
+import com.betoniarka.biblioteka.author.dto.AuthorResponseDto;
+import com.betoniarka.biblioteka.pagination.KeysetRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface AuthorRepository extends JpaRepository<Author, Long>, KeysetRepository<Author> {
+
+    @Query(
+            value =
+                    """
+                            select new com.betoniarka.biblioteka.author.dto.AuthorResponseDto(a.id, a.name)
+                            from Author a""",
+            countQuery = "select count(a) from Author a")
+    Page<AuthorResponseDto> findResponses(Pageable pageable);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.author.dto.AuthorResponseDto(a.id, a.name)
+                    from Author a
+                    where a.id > :id
+                    order by a.id""")
+    List<AuthorResponseDto> findResponsesByIdGreaterThan(@Param("id") long id, Limit limit);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.author.dto.AuthorResponseDto(a.id, a.name)
+                    from Author a
+                    where a.id = :id""")
+    Optional<AuthorResponseDto> findResponseById(@Param("id") long id);
+
+    // Conditional GET validator, read without the row itself
+
+    @Query("select a.lastModified from Author a where a.id = :id")
+    Optional<Instant> findLastModifiedById(@Param("id") long id);
 }
@@ -3,36 +3,62 @@ package com.betoniarka.biblioteka.author;
 import com.betoniarka.biblioteka.author.dto.AuthorCreateDto;
 import com.betoniarka.biblioteka.author.dto.AuthorResponseDto;
 import com.betoniarka.biblioteka.author.dto.AuthorUpdateDto;
+import com.betoniarka.biblioteka.conditional.Catalogue;
+import com.betoniarka.biblioteka.conditional.CatalogueVersions;
 import com.betoniarka.biblioteka.exceptions.ResourceNotFoundException;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
+import com.betoniarka.biblioteka.pagination.SortProperties;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Instant;
+import java.util.function.Function;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class AuthorService {
 
+    private static final SortProperties SORTABLE = new SortProperties("id", "name");
+
     private final AuthorRepository repository;
     private final AuthorMapper mapper;
+    private final CatalogueVersions catalogueVersions;
+
+    public PageResponse<AuthorResponseDto> getAll(Pageable pageable) {
+        return PageResponse.of(repository.findResponses(SORTABLE.check(pageable)));
+    }
 
-    public List<AuthorResponseDto> getAll() {
-        return repository.findAll().stream().map(mapper::toDto).toList();
+    public PageResponse<AuthorResponseDto> getAllAfter(Keyset keyset) {
+        var rows = repository.findResponsesByIdGreaterThan(keyset.after(), keyset.limit());
+        return PageResponse.of(rows, keyset, AuthorResponseDto::id, Function.identity());
     }
 
     public AuthorResponseDto getById(Long id) {
         return repository
-                .findById(id)
-                .map(mapper::toDto)
+                .findResponseById(id)
+                .orElseThrow(
+                        () -> new ResourceNotFoundException("Author with id '%d' not found".formatted(id)));
+    }
+
+    public Instant getLastModified(Long id) {
+        return repository
+                .findLastModifiedById(id)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Author with id '%d' not found".formatted(id)));
     }
 
+    public long getCollectionVersion() {
+        return catalogueVersions.current(Catalogue.AUTHOR);
+    }
+
     public AuthorResponseDto create(AuthorCreateDto createDto) {
         var entityToSave = mapper.toEntity(createDto);
         var savedEntity = repository.save(entityToSave);
+        catalogueVersions.changed(Catalogue.AUTHOR);
         return mapper.toDto(savedEntity);
     }
 
@@ -45,6 +71,7 @@ public class AuthorService {
 
         mapper.update(updateDto, existingEntity);
         var savedEntity = repository.save(existingEntity);
+        catalogueVersions.changed(Catalogue.AUTHOR);
         return mapper.toDto(savedEntity);
     }
 
@@ -52,5 +79,6 @@ public class AuthorService {
         if (!repository.existsById(id))
             throw new ResourceNotFoundException("Author with id '%d' not found".formatted(id));
         repository.deleteById(id);
+        catalogueVersions.changed(Catalogue.AUTHOR);
     }
 }
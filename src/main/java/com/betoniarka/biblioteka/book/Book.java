@@ -4,7 +4,6 @@ import com.betoniarka.biblioteka.appuser.AppUser;
 import com.betoniarka.biblioteka.author.Author;
 import com.betoniarka.biblioteka.borrow.Borrow;
 import com.betoniarka.biblioteka.category.Category;
-import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
 import com.betoniarka.biblioteka.queueentry.QueueEntry;
 import com.betoniarka.biblioteka.review.Review;
 import jakarta.persistence.*;
@@ -12,34 +11,47 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "book")
+@Table(name = "book", indexes = @Index(name = "idx_book_author", columnList = "author_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
 public class Book {
 
     @Getter
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-categories")
     @JoinTable(
             name = "book_category",
             joinColumns = @JoinColumn(name = "category_id", referencedColumnName = "ID"),
-            inverseJoinColumns = @JoinColumn(name = "book_id", referencedColumnName = "ID"))
+            inverseJoinColumns = @JoinColumn(name = "book_id", referencedColumnName = "ID"),
+            indexes = {
+                    @Index(name = "idx_book_category_category_id", columnList = "category_id"),
+                    @Index(name = "idx_book_category_book_id", columnList = "book_id")
+            })
     private final List<Category> categories = new ArrayList<>();
     @Getter
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL)
     private final List<Borrow> borrowedBy = new ArrayList<>();
     @Getter
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL)
+    @OrderBy("position")
     private final List<QueueEntry> queue = new ArrayList<>();
     @Getter
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL)
     private final List<Review> reviews = new ArrayList<>();
     @Getter
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private long id;
     @Getter
     @Setter
@@ -56,6 +68,13 @@ public class Book {
     @ManyToOne
     @JoinColumn(name = "author_id")
     private Author author;
+    /**
+     * When a field of {@link com.betoniarka.biblioteka.book.dto.BookResponseDto} last changed; the
+     * validator of conditional {@code GET}s. Stored to the microsecond, like the column.
+     */
+    @Getter
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
 
     public Book() {
     }
@@ -84,28 +103,27 @@ public class Book {
         newCategories.forEach(this::addCategory);
     }
 
-    public void decrementCount() {
-        if (this.count <= 0) {
-            throw new ResourceConflictException("Book '%s' is out of stock".formatted(this.title));
-        }
-        this.count--;
-    }
-
-    public void incrementCount() {
-        this.count++;
+    /**
+     * Stamps the book as changed now. Runs on every insert and update of the row; {@code count}
+     * changes made with {@link BookRepository#takeCopy} bypass the entity and call it under the row
+     * lock, so the stamps of one book never go backwards.
+     */
+    @PrePersist
+    @PreUpdate
+    public void markModified() {
+        this.lastModified = Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 
-    public boolean isAvailableForUser(AppUser user) {
-        if (this.queue.size() < this.count) return true;
-        var userQueueIndex = this.queue.stream().map(QueueEntry::getAppUser).toList().indexOf(user);
-        return userQueueIndex != -1 && userQueueIndex < this.count;
-    }
-
-    public void removeFromQueue(AppUser user) {
-        var queueEntryList = this.queue.stream().filter(entry -> entry.getAppUser() == user).toList();
-        if (!queueEntryList.isEmpty()) {
-            this.queue.remove(queueEntryList.getFirst());
-        }
+    /**
+     * Whether {@code user} may keep the copy {@link BookRepository#takeCopy} has already taken for
+     * them. {@code count} no longer includes that copy, so {@code count + 1} copies were on the shelf
+     * and they go to the first {@code count + 1} users in the queue.
+     *
+     * @param queueHead ids of the first {@code count + 1} queued users, in queue order (see {@link
+     *                  com.betoniarka.biblioteka.queueentry.QueueEntryRepository#findQueuedAppUserIds})
+     */
+    public boolean isAvailableForUser(AppUser user, List<Long> queueHead) {
+        return queueHead.size() <= this.count || queueHead.contains(user.getId());
     }
 
     @Override
@@ -3,16 +3,20 @@ package com.betoniarka.biblioteka.book;
 import com.betoniarka.biblioteka.book.dto.BookCreateDto;
 import com.betoniarka.biblioteka.book.dto.BookResponseDto;
 import com.betoniarka.biblioteka.book.dto.BookUpdateDto;
+import com.betoniarka.biblioteka.conditional.ConditionalGet;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
-
 @RestController
 @RequestMapping(path = "books")
 @RequiredArgsConstructor
@@ -21,12 +25,23 @@ public class BookController {
     private final BookService service;
 
     @GetMapping
-    public List<BookResponseDto> getBooks() {
-        return service.getAll();
+    public PageResponse<BookResponseDto> getBooks(
+            @RequestParam(required = false) Long after,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable,
+            ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, service.getCollectionVersion())) {
+            return null;
+        }
+        return after == null
+                ? service.getAll(pageable)
+                : service.getAllAfter(new Keyset(after, pageable.getPageSize()));
     }
 
     @GetMapping("/{id}")
-    public BookResponseDto getBookById(@PathVariable Long id) {
+    public BookResponseDto getBookById(@PathVariable Long id, ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, service.getLastModified(id))) {
+            return null;
+        }
         return service.getById(id);
     }
 
@@ -0,0 +1,7 @@
+package com.betoniarka.biblioteka.book;
+
+/**
+ * Published by {@link BookService} after a book has been persisted, inside the same transaction.
+ */
+public record BookCreatedEvent(Book book) {
+}
@@ -0,0 +1,8 @@
+package com.betoniarka.biblioteka.book;
+
+/**
+ * Published by {@link BookService} right before a book is deleted, inside the same transaction, so
+ * listeners can still read the rows that the delete cascades to.
+ */
+public record BookDeletedEvent(Book book) {
+}
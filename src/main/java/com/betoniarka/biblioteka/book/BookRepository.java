@@ -1,8 +1,101 @@
 package com.betoniarka.biblioteka.book;
 
+import com.betoniarka.biblioteka.book.dto.BookResponseDto;
+import com.betoniarka.biblioteka.pagination.KeysetRepository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, KeysetRepository<Book> {
+
+    // Read endpoints: DTOs selected directly, never entering the persistence context
+
+    @Query(
+            value =
+                    """
+                            select new com.betoniarka.biblioteka.book.dto.BookResponseDto(
+                                b.id, b.title, b.count, a.id)
+                            from Book b left join b.author a""",
+            countQuery = "select count(b) from Book b")
+    Page<BookResponseDto> findResponses(Pageable pageable);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.book.dto.BookResponseDto(
+                        b.id, b.title, b.count, a.id)
+                    from Book b left join b.author a
+                    where b.id > :id
+                    order by b.id""")
+    List<BookResponseDto> findResponsesByIdGreaterThan(@Param("id") long id, Limit limit);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.book.dto.BookResponseDto(
+                        b.id, b.title, b.count, a.id)
+                    from Book b left join b.author a
+                    where b.id = :id""")
+    Optional<BookResponseDto> findResponseById(@Param("id") long id);
+
+    // Conditional GET validator, read without the row itself
+
+    @Query("select b.lastModified from Book b where b.id = :id")
+    Optional<Instant> findLastModifiedById(@Param("id") long id);
+
+    @Query("select b.title from Book b where b.title in :titles")
+    Set<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+    /**
+     * Copy counting declares this query space instead of {@code book}. Hibernate evicts the whole
+     * cached entity region of every table a bulk statement touches, which would drop all cached
+     * books on each borrow; instead the cached {@code count} may lag until the caller re-reads it
+     * with {@link #findCountById} and writes it back.
+     */
+    String COPIES_QUERY_SPACE = "book_copies";
+
+    /**
+     * Takes one copy off the shelf in a single conditional update, so two borrowers can never both
+     * get the last copy. The row stays locked until the transaction ends, which serializes the rest
+     * of a borrow against concurrent borrows and returns of the same book.
+     *
+     * @return {@code 1} if a copy was taken, {@code 0} if the book is out of stock or does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "update book set count = count - 1 where id = :id and count > 0")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COPIES_QUERY_SPACE))
+    int takeCopy(@Param("id") long id);
+
+    /** Puts one copy back on the shelf; like {@link #takeCopy} it never overwrites a concurrent change. */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "update book set count = count + 1 where id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COPIES_QUERY_SPACE))
+    int returnCopy(@Param("id") long id);
+
+    /**
+     * Loads the book with its row locked until the transaction ends, serializing queue joins with
+     * each other and with borrows of the same book. Book updates and deletes take it before their
+     * statistics delta, like borrows do.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findForUpdateById(@Param("id") long id);
+
+    @Query("select b.count from Book b where b.id = :id")
+    Optional<Integer> findCountById(@Param("id") long id);
 }
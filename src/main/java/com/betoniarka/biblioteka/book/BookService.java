@@ -1,39 +1,68 @@
 package com.betoniarka.biblioteka.book;
 
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
 import com.betoniarka.biblioteka.author.AuthorRepository;
 import com.betoniarka.biblioteka.book.dto.BookCreateDto;
 import com.betoniarka.biblioteka.book.dto.BookResponseDto;
 import com.betoniarka.biblioteka.book.dto.BookUpdateDto;
 import com.betoniarka.biblioteka.category.CategoryRepository;
+import com.betoniarka.biblioteka.conditional.Catalogue;
+import com.betoniarka.biblioteka.conditional.CatalogueVersions;
 import com.betoniarka.biblioteka.exceptions.ResourceNotFoundException;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
+import com.betoniarka.biblioteka.pagination.SortProperties;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Instant;
+import java.util.function.Function;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class BookService {
 
+    private static final SortProperties SORTABLE = new SortProperties("id", "title", "count");
+
     private final BookRepository bookRepository;
     private final CategoryRepository categoryRepository;
     private final AuthorRepository authorRepository;
+    private final AppUserRepository appUserRepository;
     private final BookMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogueVersions catalogueVersions;
+
+    public PageResponse<BookResponseDto> getAll(Pageable pageable) {
+        return PageResponse.of(bookRepository.findResponses(SORTABLE.check(pageable)));
+    }
 
-    public List<BookResponseDto> getAll() {
-        return bookRepository.findAll().stream().map(mapper::toDto).toList();
+    public PageResponse<BookResponseDto> getAllAfter(Keyset keyset) {
+        var rows = bookRepository.findResponsesByIdGreaterThan(keyset.after(), keyset.limit());
+        return PageResponse.of(rows, keyset, BookResponseDto::id, Function.identity());
     }
 
     public BookResponseDto getById(Long id) {
         return bookRepository
-                .findById(id)
-                .map(mapper::toDto)
+                .findResponseById(id)
+                .orElseThrow(
+                        () -> new ResourceNotFoundException("Book with id '%d' not found".formatted(id)));
+    }
+
+    public Instant getLastModified(Long id) {
+        return bookRepository
+                .findLastModifiedById(id)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Book with id '%d' not found".formatted(id)));
     }
 
+    public long getCollectionVersion() {
+        return catalogueVersions.current(Catalogue.BOOK);
+    }
+
     public BookResponseDto create(BookCreateDto createDto) {
         var entityToSave = mapper.toEntity(createDto);
         if (createDto.authorId() != null) {
@@ -52,16 +81,22 @@ public class BookService {
         }
 
         var savedEntity = bookRepository.save(entityToSave);
+        catalogueVersions.changed(Catalogue.BOOK);
+        eventPublisher.publishEvent(new BookCreatedEvent(savedEntity));
         return mapper.toDto(savedEntity);
     }
 
+    /** Locks the book before its statistics delta, in the order borrows take them. */
     public BookResponseDto update(Long id, BookUpdateDto updateDto) {
         var existingEntity =
                 bookRepository
-                        .findById(id)
+                        .findForUpdateById(id)
                         .orElseThrow(
                                 () -> new ResourceNotFoundException("Book with id '%d' not found".formatted(id)));
 
+        var previousCount = existingEntity.getCount();
+        var previousCategoryCount = existingEntity.getCategories().size();
+
         mapper.update(updateDto, existingEntity);
         if (updateDto.authorId() != null) {
             var author =
@@ -79,13 +114,23 @@ public class BookService {
         }
 
         var savedEntity = bookRepository.save(existingEntity);
+        catalogueVersions.changed(Catalogue.BOOK);
+        eventPublisher.publishEvent(
+                new BookUpdatedEvent(savedEntity, previousCount, previousCategoryCount));
         return mapper.toDto(savedEntity);
     }
 
+    /** Locks the users still borrowing the book, then the book, in the order borrows take them. */
     public void delete(Long id) {
-        if (!bookRepository.existsById(id))
-            throw new ResourceNotFoundException("Book with id '%d' not found".formatted(id));
+        appUserRepository.findActiveBorrowersOfBookForUpdate(id);
+        var existingEntity =
+                bookRepository
+                        .findForUpdateById(id)
+                        .orElseThrow(
+                                () -> new ResourceNotFoundException("Book with id '%d' not found".formatted(id)));
 
-        bookRepository.deleteById(id);
+        eventPublisher.publishEvent(new BookDeletedEvent(existingEntity));
+        bookRepository.delete(existingEntity);
+        catalogueVersions.changed(Catalogue.BOOK);
     }
 }
@@ -0,0 +1,10 @@
+package com.betoniarka.biblioteka.book;
+
+/**
+ * Published by {@link BookService} after a book has been updated, inside the same transaction.
+ *
+ * @param previousCount         number of available copies before the update
+ * @param previousCategoryCount number of categories assigned before the update
+ */
+public record BookUpdatedEvent(Book book, int previousCount, int previousCategoryCount) {
+}
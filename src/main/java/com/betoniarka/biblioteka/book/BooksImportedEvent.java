@@ -0,0 +1,10 @@
+package com.betoniarka.biblioteka.book;
+
+import java.util.List;
+
+/**
+ * Published by the bulk import once per batch, after the batch has been flushed, inside the same
+ * transaction. Replaces one {@link BookCreatedEvent} per row so listeners can apply a single delta.
+ */
+public record BooksImportedEvent(List<Book> books) {
+}
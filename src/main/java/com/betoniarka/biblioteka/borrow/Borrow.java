@@ -12,7 +12,22 @@ import java.time.Instant;
 import java.util.Objects;
 
 @Entity
-@Table(name = "borrowed_book")
+@Table(
+        name = "borrowed_book",
+        indexes = {
+                @Index(name = "idx_borrowed_book_app_user_returned", columnList = "app_user_id, returned_at"),
+                @Index(name = "idx_borrowed_book_book_borrowed", columnList = "book_id, borrowed_at"),
+                // H2 has no partial indexes; with returned_at leading, "returned_at is null" selects
+                // exactly the open borrows and borrowed_at narrows them to the overdue ones
+                @Index(name = "idx_borrowed_book_open", columnList = "returned_at, borrowed_at")
+        })
+@NamedEntityGraph(
+        name = "Borrow.withBookAndAppUser",
+        attributeNodes = {
+                @NamedAttributeNode(value = "book", subgraph = "book"),
+                @NamedAttributeNode("appUser")
+        },
+        subgraphs = @NamedSubgraph(name = "book", attributeNodes = @NamedAttributeNode("author")))
 public class Borrow {
 
     @Getter
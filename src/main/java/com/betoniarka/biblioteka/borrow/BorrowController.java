@@ -3,15 +3,17 @@ package com.betoniarka.biblioteka.borrow;
 import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
 import com.betoniarka.biblioteka.borrow.dto.BorrowResponseDto;
 import com.betoniarka.biblioteka.borrow.dto.BorrowUpdateDto;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
-
 @RestController
 @RequestMapping(path = "borrows")
 @RequiredArgsConstructor
@@ -21,8 +23,12 @@ public class BorrowController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
-    public List<BorrowResponseDto> getBorrows() {
-        return service.getAll();
+    public PageResponse<BorrowResponseDto> getBorrows(
+            @RequestParam(required = false) Long after,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return after == null
+                ? service.getAll(pageable)
+                : service.getAllAfter(new Keyset(after, pageable.getPageSize()));
     }
 
     @GetMapping("/{id}")
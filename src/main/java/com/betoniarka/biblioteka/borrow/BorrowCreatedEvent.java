@@ -0,0 +1,8 @@
+package com.betoniarka.biblioteka.borrow;
+
+/**
+ * Published by {@link BorrowService} after a borrow has been persisted, inside the borrowing
+ * transaction.
+ */
+public record BorrowCreatedEvent(Borrow borrow) {
+}
@@ -1,6 +1,28 @@
 package com.betoniarka.biblioteka.borrow;
 
+import com.betoniarka.biblioteka.pagination.KeysetRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface BorrowRepository extends JpaRepository<Borrow, Long> {
+import java.util.List;
+import java.util.Optional;
+
+/** Lists fetch everything {@link BorrowMapper#toDto} reads in the same query. */
+public interface BorrowRepository extends JpaRepository<Borrow, Long>, KeysetRepository<Borrow> {
+
+    @Override
+    @EntityGraph("Borrow.withBookAndAppUser")
+    Page<Borrow> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph("Borrow.withBookAndAppUser")
+    List<Borrow> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    @Query("select b.appUser.id from Borrow b where b.id = :id")
+    Optional<Long> findAppUserIdById(@Param("id") long id);
 }
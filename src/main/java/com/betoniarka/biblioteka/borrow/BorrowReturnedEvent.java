@@ -0,0 +1,8 @@
+package com.betoniarka.biblioteka.borrow;
+
+/**
+ * Published by {@link BorrowService} after a borrow has been marked as returned, inside the return
+ * transaction.
+ */
+public record BorrowReturnedEvent(Borrow borrow) {
+}
@@ -1,19 +1,26 @@
 package com.betoniarka.biblioteka.borrow;
 
+import com.betoniarka.biblioteka.appuser.AppUser;
 import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.book.Book;
 import com.betoniarka.biblioteka.book.BookRepository;
 import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
 import com.betoniarka.biblioteka.borrow.dto.BorrowResponseDto;
 import com.betoniarka.biblioteka.borrow.dto.BorrowUpdateDto;
+import com.betoniarka.biblioteka.conditional.Catalogue;
+import com.betoniarka.biblioteka.conditional.CatalogueVersions;
+import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
 import com.betoniarka.biblioteka.exceptions.ResourceNotFoundException;
-import com.betoniarka.biblioteka.notifications.Notification;
-import com.betoniarka.biblioteka.notifications.NotificationRepository;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
+import com.betoniarka.biblioteka.queueentry.QueueEntryRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 @Transactional
 @RequiredArgsConstructor
@@ -22,11 +29,18 @@ public class BorrowService {
     private final AppUserRepository appUserRepository;
     private final BookRepository bookRepository;
     private final BorrowRepository borrowRepository;
-    private final NotificationRepository notificationRepository;
+    private final QueueEntryRepository queueEntryRepository;
     private final BorrowMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogueVersions catalogueVersions;
+
+    public PageResponse<BorrowResponseDto> getAll(Pageable pageable) {
+        return PageResponse.of(borrowRepository.findAll(pageable).map(mapper::toDto));
+    }
 
-    public List<BorrowResponseDto> getAll() {
-        return borrowRepository.findAll().stream().map(mapper::toDto).toList();
+    public PageResponse<BorrowResponseDto> getAllAfter(Keyset keyset) {
+        var rows = borrowRepository.findByIdGreaterThanOrderByIdAsc(keyset.after(), keyset.limit());
+        return PageResponse.of(rows, keyset, Borrow::getId, mapper::toDto);
     }
 
     public BorrowResponseDto getById(Long id) {
@@ -37,27 +51,38 @@ public class BorrowService {
                         () -> new ResourceNotFoundException("Borrow with id '%d' not found".formatted(id)));
     }
 
+    /**
+     * Locks the user before {@link BookRepository#takeCopy} locks the book; returns take the same
+     * order, so concurrent borrows and returns of one user cannot deadlock on each other.
+     */
     public BorrowResponseDto borrowBook(BorrowCreateDto createBorrowDto) {
-        var appUser =
-                appUserRepository
-                        .findById(createBorrowDto.appUserId())
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "AppUser with id '%d' not found".formatted(createBorrowDto.appUserId())));
-        var book =
-                bookRepository
-                        .findById(createBorrowDto.bookId())
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "Book with id '%d' not found".formatted(createBorrowDto.bookId())));
+        var appUser = lockAppUser(createBorrowDto.appUserId());
+
+        var bookId = createBorrowDto.bookId();
+        if (bookRepository.takeCopy(bookId) == 0) {
+            var title =
+                    bookRepository
+                            .findById(bookId)
+                            .map(Book::getTitle)
+                            .orElseThrow(
+                                    () ->
+                                            new ResourceNotFoundException(
+                                                    "Book with id '%d' not found".formatted(bookId)));
+            throw new ResourceConflictException("Book '%s' is out of stock".formatted(title));
+        }
+
+        var book = bookRepository.findById(bookId).orElseThrow();
+        syncCount(book);
+
+        var queueHead = queueEntryRepository.findQueuedAppUserIds(bookId, Limit.of(book.getCount() + 1));
 
         var borrow = mapper.toEntity(createBorrowDto);
 
-        appUser.borrowBook(borrow, book);
+        appUser.borrowBook(borrow, book, queueHead);
 
         borrowRepository.save(borrow);
+        queueEntryRepository.deleteByAppUserIdAndBookId(appUser.getId(), bookId);
+        eventPublisher.publishEvent(new BorrowCreatedEvent(borrow));
         return mapper.toDto(borrow);
     }
 
@@ -75,27 +100,44 @@ public class BorrowService {
     }
 
     public BorrowResponseDto returnBook(Long id) {
-        var borrow =
+        var appUserId =
                 borrowRepository
-                        .findById(id)
+                        .findAppUserIdById(id)
                         .orElseThrow(
                                 () -> new ResourceNotFoundException("Borrow with id '%d' not found".formatted(id)));
+        var appUser = lockAppUser(appUserId);
+        var borrow = borrowRepository.findById(id).orElseThrow();
 
-        var appUser = borrow.getAppUser();
         appUser.returnBook(borrow);
 
-        var book = borrow.getBook();
-        var count = book.getCount();
-        try {
-            var notification = new Notification("Book '%s' is available for borrowing".formatted(book.getTitle()));
-            var userToNotify = book.getQueue().get(count - 1).getAppUser();
-            userToNotify.addNotification(notification);
-            notification.setAppUser(userToNotify);
-            notificationRepository.save(notification);
-        } catch (Exception ignored) {
-        }
+        bookRepository.returnCopy(borrow.getBook().getId());
+        syncCount(borrow.getBook());
 
         var savedBorrow = borrowRepository.save(borrow);
+        eventPublisher.publishEvent(new BorrowReturnedEvent(savedBorrow));
         return mapper.toDto(savedBorrow);
     }
+
+    private AppUser lockAppUser(long appUserId) {
+        return appUserRepository
+                .findForUpdateById(appUserId)
+                .orElseThrow(
+                        () ->
+                                new ResourceNotFoundException(
+                                        "AppUser with id '%d' not found".formatted(appUserId)));
+    }
+
+    /**
+     * Copies are counted with bulk updates that bypass the persistence context and the second-level
+     * cache, so a book that was already loaded or came from the cache still holds the old value. The
+     * row is locked by then, which makes the value read here final for this transaction and safe to
+     * flush back; flushing it also refreshes the cached book. The book is always written, even when
+     * it was loaded after the bulk update, so its {@link Book#getLastModified} moves with the count,
+     * and the change counts towards the version of the book collection.
+     */
+    private void syncCount(Book book) {
+        book.setCount(bookRepository.findCountById(book.getId()).orElseThrow());
+        book.markModified();
+        catalogueVersions.changed(Catalogue.BOOK);
+    }
 }
@@ -0,0 +1,61 @@
+package com.betoniarka.biblioteka.bulkimport;
+
+import com.betoniarka.biblioteka.author.dto.AuthorCreateDto;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.bulkimport.dto.ImportResultDto;
+import com.betoniarka.biblioteka.category.dto.CategoryCreateDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/import")
+@RequiredArgsConstructor
+public class BulkImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final BulkImportService service;
+
+    @PostMapping(path = "/books", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ImportResultDto importBooks(@RequestBody List<BookCreateDto> rows) {
+        return service.importBooks(ImportRow.numbered(rows));
+    }
+
+    @PostMapping(path = "/books", consumes = TEXT_CSV)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ImportResultDto importBooksCsv(@RequestBody String csv) {
+        return service.importBooks(ImportCsv.books(csv));
+    }
+
+    @PostMapping(path = "/authors", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ImportResultDto importAuthors(@RequestBody List<AuthorCreateDto> rows) {
+        return service.importAuthors(ImportRow.numbered(rows));
+    }
+
+    @PostMapping(path = "/authors", consumes = TEXT_CSV)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ImportResultDto importAuthorsCsv(@RequestBody String csv) {
+        return service.importAuthors(ImportCsv.authors(csv));
+    }
+
+    @PostMapping(path = "/categories", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ImportResultDto importCategories(@RequestBody List<CategoryCreateDto> rows) {
+        return service.importCategories(ImportRow.numbered(rows));
+    }
+
+    @PostMapping(path = "/categories", consumes = TEXT_CSV)
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ImportResultDto importCategoriesCsv(@RequestBody String csv) {
+        return service.importCategories(ImportCsv.categories(csv));
+    }
+}
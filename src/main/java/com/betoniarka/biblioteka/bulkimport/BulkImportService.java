@@ -0,0 +1,266 @@
+package com.betoniarka.biblioteka.bulkimport;
+
+import com.betoniarka.biblioteka.author.Author;
+import com.betoniarka.biblioteka.author.AuthorMapper;
+import com.betoniarka.biblioteka.author.AuthorRepository;
+import com.betoniarka.biblioteka.author.dto.AuthorCreateDto;
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.book.BookMapper;
+import com.betoniarka.biblioteka.book.BookRepository;
+import com.betoniarka.biblioteka.book.BooksImportedEvent;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.bulkimport.dto.ImportResultDto;
+import com.betoniarka.biblioteka.bulkimport.dto.ImportRowErrorDto;
+import com.betoniarka.biblioteka.category.Category;
+import com.betoniarka.biblioteka.category.CategoryMapper;
+import com.betoniarka.biblioteka.category.CategoryRepository;
+import com.betoniarka.biblioteka.category.dto.CategoryCreateDto;
+import com.betoniarka.biblioteka.conditional.Catalogue;
+import com.betoniarka.biblioteka.conditional.CatalogueVersions;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk inserts of books, authors and categories.
+ *
+ * <p>Every row is validated up front and referenced authors and categories are resolved with one
+ * query each, so only rows that would certainly fail are reported and skipped. The remaining rows
+ * are inserted in batches of {@code library.import.batchSize}, each in its own transaction and
+ * flushed with Hibernate JDBC batching; a batch that still fails is rolled back and reported
+ * without affecting the others.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkImportService {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final CategoryRepository categoryRepository;
+    private final BookMapper bookMapper;
+    private final AuthorMapper authorMapper;
+    private final CategoryMapper categoryMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogueVersions catalogueVersions;
+
+    @Value("${library.import.batchSize:500}")
+    private int batchSize;
+
+    public ImportResultDto importBooks(List<ImportRow<BookCreateDto>> rows) {
+        var errors = new ArrayList<ImportRowErrorDto>();
+        var valid = validate(rows, errors);
+
+        Set<Long> authorIds =
+                valid.stream()
+                        .map(row -> row.value().authorId())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+        Set<Long> categoryIds =
+                valid.stream()
+                        .flatMap(row -> row.value().categoryIds().stream())
+                        .collect(Collectors.toSet());
+        Set<Long> knownAuthorIds =
+                authorRepository.findAllById(authorIds).stream()
+                        .map(Author::getId)
+                        .collect(Collectors.toSet());
+        Set<Long> knownCategoryIds =
+                categoryRepository.findAllById(categoryIds).stream()
+                        .map(Category::getId)
+                        .collect(Collectors.toSet());
+        Set<String> titles = existing(valid, BookCreateDto::title, bookRepository::findExistingTitles);
+
+        var accepted = new ArrayList<ImportRow<BookCreateDto>>();
+        for (var row : valid) {
+            var dto = row.value();
+            var missingCategory =
+                    dto.categoryIds().stream().filter(id -> !knownCategoryIds.contains(id)).findFirst();
+
+            if (dto.authorId() != null && !knownAuthorIds.contains(dto.authorId())) {
+                errors.add(error(row, "Author with id '%d' not found".formatted(dto.authorId())));
+            } else if (missingCategory.isPresent()) {
+                errors.add(
+                        error(row, "Category with id '%d' not found".formatted(missingCategory.get())));
+            } else if (!titles.add(dto.title())) {
+                errors.add(error(row, "Book with title '%s' already exists".formatted(dto.title())));
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        int imported =
+                persistInBatches(
+                        accepted,
+                        this::toBooks,
+                        books -> {
+                            eventPublisher.publishEvent(new BooksImportedEvent(books));
+                            catalogueVersions.changed(Catalogue.BOOK);
+                        },
+                        errors);
+        return result(rows.size(), imported, errors);
+    }
+
+    public ImportResultDto importAuthors(List<ImportRow<AuthorCreateDto>> rows) {
+        var errors = new ArrayList<ImportRowErrorDto>();
+        var valid = validate(rows, errors);
+
+        int imported =
+                persistInBatches(
+                        valid,
+                        batch -> batch.stream().map(authorMapper::toEntity).toList(),
+                        authors -> catalogueVersions.changed(Catalogue.AUTHOR),
+                        errors);
+        return result(rows.size(), imported, errors);
+    }
+
+    public ImportResultDto importCategories(List<ImportRow<CategoryCreateDto>> rows) {
+        var errors = new ArrayList<ImportRowErrorDto>();
+        var valid = validate(rows, errors);
+        Set<String> names =
+                existing(valid, CategoryCreateDto::name, categoryRepository::findExistingNames);
+
+        var accepted = new ArrayList<ImportRow<CategoryCreateDto>>();
+        for (var row : valid) {
+            if (names.add(row.value().name())) {
+                accepted.add(row);
+            } else {
+                errors.add(
+                        error(
+                                row,
+                                "Category with name '%s' already exists".formatted(row.value().name())));
+            }
+        }
+
+        int imported =
+                persistInBatches(
+                        accepted,
+                        batch -> batch.stream().map(categoryMapper::toEntity).toList(),
+                        categories -> catalogueVersions.changed(Catalogue.CATEGORY),
+                        errors);
+        return result(rows.size(), imported, errors);
+    }
+
+    /** Runs inside the batch transaction, so authors are bare references and categories one query. */
+    private List<Book> toBooks(List<BookCreateDto> batch) {
+        Map<Long, Category> categories =
+                categoryRepository
+                        .findAllById(
+                                batch.stream()
+                                        .flatMap(dto -> dto.categoryIds().stream())
+                                        .collect(Collectors.toSet()))
+                        .stream()
+                        .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        return batch.stream()
+                .map(
+                        dto -> {
+                            var book = bookMapper.toEntity(dto);
+                            if (dto.authorId() != null) {
+                                book.setAuthor(authorRepository.getReferenceById(dto.authorId()));
+                            }
+                            book.setCategories(dto.categoryIds().stream().map(categories::get).toList());
+                            return book;
+                        })
+                .toList();
+    }
+
+    private <T> List<ImportRow<T>> validate(List<ImportRow<T>> rows, List<ImportRowErrorDto> errors) {
+        var valid = new ArrayList<ImportRow<T>>(rows.size());
+        for (var row : rows) {
+            if (row.error() != null) {
+                errors.add(error(row, row.error()));
+                continue;
+            }
+            if (row.value() == null) {
+                errors.add(error(row, "Row is empty"));
+                continue;
+            }
+
+            Set<ConstraintViolation<T>> violations = validator.validate(row.value());
+            if (violations.isEmpty()) {
+                valid.add(row);
+            } else {
+                errors.add(
+                        error(
+                                row,
+                                violations.stream()
+                                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                                        .sorted()
+                                        .collect(Collectors.joining(", "))));
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the unique keys that are already taken in the database; callers add accepted keys to
+     * the returned set to catch duplicates within the upload as well.
+     */
+    private static <T> Set<String> existing(
+            List<ImportRow<T>> rows,
+            Function<T, String> key,
+            Function<Collection<String>, Set<String>> findExisting) {
+        Set<String> keys = rows.stream().map(row -> key.apply(row.value())).collect(Collectors.toSet());
+        return keys.isEmpty() ? new HashSet<>() : new HashSet<>(findExisting.apply(keys));
+    }
+
+    private <T, E> int persistInBatches(
+            List<ImportRow<T>> rows,
+            Function<List<T>, List<E>> toEntities,
+            Consumer<List<E>> afterFlush,
+            List<ImportRowErrorDto> errors) {
+        int imported = 0;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            var batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> {
+                            var entities = toEntities.apply(batch.stream().map(ImportRow::value).toList());
+                            entities.forEach(entityManager::persist);
+                            entityManager.flush();
+                            afterFlush.accept(entities);
+                            entityManager.clear();
+                        });
+                imported += batch.size();
+            } catch (RuntimeException e) {
+                log.warn(
+                        "Import batch of rows {}-{} rolled back.",
+                        batch.getFirst().number(),
+                        batch.getLast().number(),
+                        e);
+                batch.forEach(row -> errors.add(error(row, "Batch rolled back: " + e.getMessage())));
+            }
+        }
+        return imported;
+    }
+
+    private static ImportRowErrorDto error(ImportRow<?> row, String message) {
+        return new ImportRowErrorDto(row.number(), message);
+    }
+
+    private static ImportResultDto result(int total, int imported, List<ImportRowErrorDto> errors) {
+        errors.sort(Comparator.comparingInt(ImportRowErrorDto::row));
+        return new ImportResultDto(total, imported, errors);
+    }
+}
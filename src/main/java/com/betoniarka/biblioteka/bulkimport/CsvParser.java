@@ -0,0 +1,62 @@
+package com.betoniarka.biblioteka.bulkimport;
+
+import com.betoniarka.biblioteka.exceptions.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Minimal RFC 4180 reader: comma separated, optional double quotes, {@code ""} as an escaped quote. */
+final class CsvParser {
+
+    private CsvParser() {
+    }
+
+    static List<List<String>> parse(String text) {
+        var records = new ArrayList<List<String>>();
+        var record = new ArrayList<String>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                record.add(field.toString());
+                field.setLength(0);
+                addUnlessBlank(records, record);
+                record = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new InvalidRequestException("CSV ends inside a quoted field");
+        }
+        record.add(field.toString());
+        addUnlessBlank(records, record);
+        return records;
+    }
+
+    private static void addUnlessBlank(List<List<String>> records, List<String> record) {
+        if (record.size() > 1 || !record.getFirst().isBlank()) {
+            records.add(record);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.betoniarka.biblioteka.bulkimport;
+
+import com.betoniarka.biblioteka.author.dto.AuthorCreateDto;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.category.dto.CategoryCreateDto;
+import com.betoniarka.biblioteka.exceptions.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Converts CSV uploads into import rows. The first line is a header naming the columns, in any
+ * order; a value that cannot be converted makes only its own row invalid.
+ *
+ * <ul>
+ *   <li>books: {@code title,count,authorId,categoryIds} ({@code categoryIds} separated by {@code ;})
+ *   <li>authors: {@code name}
+ *   <li>categories: {@code name}
+ * </ul>
+ */
+final class ImportCsv {
+
+    private ImportCsv() {
+    }
+
+    static List<ImportRow<BookCreateDto>> books(String csv) {
+        return rows(
+                csv,
+                List.of("title", "count"),
+                record ->
+                        new BookCreateDto(
+                                record.text("title"),
+                                record.integer("count"),
+                                record.number("authorId"),
+                                record.numbers("categoryIds")));
+    }
+
+    static List<ImportRow<AuthorCreateDto>> authors(String csv) {
+        return rows(csv, List.of("name"), record -> new AuthorCreateDto(record.text("name")));
+    }
+
+    static List<ImportRow<CategoryCreateDto>> categories(String csv) {
+        return rows(csv, List.of("name"), record -> new CategoryCreateDto(record.text("name")));
+    }
+
+    private static <T> List<ImportRow<T>> rows(
+            String csv, List<String> requiredColumns, Function<CsvRecord, T> converter) {
+        var lines = CsvParser.parse(csv);
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+
+        var columns = new HashMap<String, Integer>();
+        var header = lines.getFirst();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        var missing = requiredColumns.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidRequestException("CSV header is missing columns: " + missing);
+        }
+
+        var rows = new ArrayList<ImportRow<T>>(lines.size() - 1);
+        for (int i = 1; i < lines.size(); i++) {
+            try {
+                rows.add(ImportRow.of(i, converter.apply(new CsvRecord(columns, lines.get(i)))));
+            } catch (IllegalArgumentException e) {
+                rows.add(ImportRow.invalid(i, e.getMessage()));
+            }
+        }
+        return rows;
+    }
+
+    private record CsvRecord(Map<String, Integer> columns, List<String> fields) {
+
+        String text(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            var value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        Integer integer(String column) {
+            var value = text(column);
+            try {
+                return value == null ? null : Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("%s: '%s' is not a number".formatted(column, value));
+            }
+        }
+
+        Long number(String column) {
+            var value = text(column);
+            return value == null ? null : parseLong(column, value);
+        }
+
+        Set<Long> numbers(String column) {
+            var value = text(column);
+            if (value == null) {
+                return Set.of();
+            }
+            return Arrays.stream(value.split(";"))
+                    .map(String::trim)
+                    .filter(id -> !id.isEmpty())
+                    .map(id -> parseLong(column, id))
+                    .collect(Collectors.toSet());
+        }
+
+        private static Long parseLong(String column, String value) {
+            try {
+                return Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("%s: '%s' is not a number".formatted(column, value));
+            }
+        }
+    }
+}
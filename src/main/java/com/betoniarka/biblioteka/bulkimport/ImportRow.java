@@ -0,0 +1,27 @@
+package com.betoniarka.biblioteka.bulkimport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One input row: its 1-based number in the upload and either the parsed value or the reason it
+ * could not be parsed.
+ */
+public record ImportRow<T>(int number, T value, String error) {
+
+    public static <T> ImportRow<T> of(int number, T value) {
+        return new ImportRow<>(number, value, null);
+    }
+
+    public static <T> ImportRow<T> invalid(int number, String error) {
+        return new ImportRow<>(number, null, error);
+    }
+
+    public static <T> List<ImportRow<T>> numbered(List<T> values) {
+        var rows = new ArrayList<ImportRow<T>>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            rows.add(of(i + 1, values.get(i)));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,6 @@
+package com.betoniarka.biblioteka.bulkimport.dto;
+
+import java.util.List;
+
+public record ImportResultDto(int total, int imported, List<ImportRowErrorDto> errors) {
+}
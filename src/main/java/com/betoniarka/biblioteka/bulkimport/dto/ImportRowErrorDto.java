@@ -0,0 +1,4 @@
+package com.betoniarka.biblioteka.bulkimport.dto;
+
+public record ImportRowErrorDto(int row, String message) {
+}
@@ -0,0 +1,4 @@
+package com.betoniarka.biblioteka.cache;
+
+public record CacheRegionStatisticsDto(String region, long hits, long misses, long puts) {
+}
@@ -0,0 +1,50 @@
+package com.betoniarka.biblioteka.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hit and miss counters of the Hibernate second-level cache regions, counted since startup.
+ *
+ * <p>Hibernate only counts them with {@code hibernate.generate_statistics}, which costs every
+ * session some bookkeeping, so both it and this endpoint are off unless {@code
+ * library.cache.statistics} is {@code true}.
+ */
+@RestController
+@ConditionalOnProperty(name = "library.cache.statistics", havingValue = "true")
+@RequestMapping("/cache")
+public class CacheStatisticsController {
+
+    private final Statistics statistics;
+
+    public CacheStatisticsController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @GetMapping("/regions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheRegionStatisticsDto>> regions() {
+        var regions =
+                Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                        .sorted()
+                        .map(this::region)
+                        .toList();
+        return ResponseEntity.ok(regions);
+    }
+
+    private CacheRegionStatisticsDto region(String name) {
+        var region = statistics.getDomainDataRegionStatistics(name);
+        return new CacheRegionStatisticsDto(
+                name, region.getHitCount(), region.getMissCount(), region.getPutCount());
+    }
+}
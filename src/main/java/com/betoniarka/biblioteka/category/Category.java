@@ -5,13 +5,19 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 @Entity
 @Table(name = "category")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category {
 
     @Getter
@@ -19,7 +25,8 @@ public class Category {
     private final List<Book> books = new ArrayList<>();
     @Getter
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "category_seq", allocationSize = 50)
     private long id;
     @Getter
     @Setter
@@ -27,6 +34,10 @@ public class Category {
     @NotNull(message = "name is required")
     private String name;
 
+    @Getter
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+
     public Category() {
     }
 
@@ -35,6 +46,12 @@ public class Category {
         this.id = id;
     }
 
+    @PrePersist
+    @PreUpdate
+    void markModified() {
+        this.lastModified = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
@@ -3,16 +3,20 @@ package com.betoniarka.biblioteka.category;
 import com.betoniarka.biblioteka.category.dto.CategoryCreateDto;
 import com.betoniarka.biblioteka.category.dto.CategoryResponseDto;
 import com.betoniarka.biblioteka.category.dto.CategoryUpdateDto;
+import com.betoniarka.biblioteka.conditional.ConditionalGet;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/categories")
 @RequiredArgsConstructor
@@ -21,12 +25,23 @@ public class CategoryController {
     private final CategoryService service;
 
     @GetMapping
-    public List<CategoryResponseDto> getAll() {
-        return service.getAll();
+    public PageResponse<CategoryResponseDto> getAll(
+            @RequestParam(required = false) Long after,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable,
+            ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, service.getCollectionVersion())) {
+            return null;
+        }
+        return after == null
+                ? service.getAll(pageable)
+                : service.getAllAfter(new Keyset(after, pageable.getPageSize()));
     }
 
     @GetMapping("/{id}")
-    public CategoryResponseDto getById(@PathVariable long id) {
+    public CategoryResponseDto getById(@PathVariable long id, ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, service.getLastModified(id))) {
+            return null;
+        }
         return service.getById(id);
     }
 
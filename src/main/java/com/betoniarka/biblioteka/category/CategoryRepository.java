@@ -1,9 +1,53 @@
 package com.betoniarka.biblioteka.category;
 
+import com.betoniarka.biblioteka.category.dto.CategoryResponseDto;
+import com.betoniarka.biblioteka.pagination.KeysetRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface CategoryRepository extends JpaRepository<Category, Long>, KeysetRepository<Category> {
     boolean existsByName(String name);
 
     boolean existsByNameAndIdNot(String name, long id);
+
+    @Query("select c.name from Category c where c.name in :names")
+    Set<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query(
+            value =
+                    """
+                            select new com.betoniarka.biblioteka.category.dto.CategoryResponseDto(c.id, c.name)
+                            from Category c""",
+            countQuery = "select count(c) from Category c")
+    Page<CategoryResponseDto> findResponses(Pageable pageable);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.category.dto.CategoryResponseDto(c.id, c.name)
+                    from Category c
+                    where c.id > :id
+                    order by c.id""")
+    List<CategoryResponseDto> findResponsesByIdGreaterThan(@Param("id") long id, Limit limit);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.category.dto.CategoryResponseDto(c.id, c.name)
+                    from Category c
+                    where c.id = :id""")
+    Optional<CategoryResponseDto> findResponseById(@Param("id") long id);
+
+    // Conditional GET validator, read without the row itself
+
+    @Query("select c.lastModified from Category c where c.id = :id")
+    Optional<Instant> findLastModifiedById(@Param("id") long id);
 }
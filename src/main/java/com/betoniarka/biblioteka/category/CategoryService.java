@@ -3,34 +3,59 @@ package com.betoniarka.biblioteka.category;
 import com.betoniarka.biblioteka.category.dto.CategoryCreateDto;
 import com.betoniarka.biblioteka.category.dto.CategoryResponseDto;
 import com.betoniarka.biblioteka.category.dto.CategoryUpdateDto;
+import com.betoniarka.biblioteka.conditional.Catalogue;
+import com.betoniarka.biblioteka.conditional.CatalogueVersions;
 import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
 import com.betoniarka.biblioteka.exceptions.ResourceNotFoundException;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
+import com.betoniarka.biblioteka.pagination.SortProperties;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.time.Instant;
+import java.util.function.Function;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class CategoryService {
 
+    private static final SortProperties SORTABLE = new SortProperties("id", "name");
+
     private final CategoryRepository repository;
     private final CategoryMapper mapper;
+    private final CatalogueVersions catalogueVersions;
+
+    public PageResponse<CategoryResponseDto> getAll(Pageable pageable) {
+        return PageResponse.of(repository.findResponses(SORTABLE.check(pageable)));
+    }
 
-    public List<CategoryResponseDto> getAll() {
-        return repository.findAll().stream().map(mapper::toDto).toList();
+    public PageResponse<CategoryResponseDto> getAllAfter(Keyset keyset) {
+        var rows = repository.findResponsesByIdGreaterThan(keyset.after(), keyset.limit());
+        return PageResponse.of(rows, keyset, CategoryResponseDto::id, Function.identity());
     }
 
     public CategoryResponseDto getById(long id) {
         return repository
-                .findById(id)
-                .map(mapper::toDto)
+                .findResponseById(id)
+                .orElseThrow(
+                        () -> new ResourceNotFoundException("Category with id '%d' not found".formatted(id)));
+    }
+
+    public Instant getLastModified(long id) {
+        return repository
+                .findLastModifiedById(id)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Category with id '%d' not found".formatted(id)));
     }
 
+    public long getCollectionVersion() {
+        return catalogueVersions.current(Catalogue.CATEGORY);
+    }
+
     public CategoryResponseDto create(CategoryCreateDto createDto) {
         if (repository.existsByName(createDto.name())) {
             throw new ResourceConflictException(
@@ -39,6 +64,7 @@ public class CategoryService {
 
         var entityToSave = mapper.toEntity(createDto);
         var saved = repository.save(entityToSave);
+        catalogueVersions.changed(Catalogue.CATEGORY);
         return mapper.toDto(saved);
     }
 
@@ -57,6 +83,7 @@ public class CategoryService {
 
         mapper.update(updateDto, existing);
         var saved = repository.save(existing);
+        catalogueVersions.changed(Catalogue.CATEGORY);
         return mapper.toDto(saved);
     }
 
@@ -65,5 +92,6 @@ public class CategoryService {
             throw new ResourceNotFoundException("Category with id '%d' not found".formatted(id));
         }
         repository.deleteById(id);
+        catalogueVersions.changed(Catalogue.CATEGORY);
     }
 }
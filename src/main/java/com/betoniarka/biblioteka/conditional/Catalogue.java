@@ -0,0 +1,8 @@
+package com.betoniarka.biblioteka.conditional;
+
+/** Catalogue collections answered with conditional {@code GET}s, see {@link CatalogueVersions}. */
+public enum Catalogue {
+    BOOK,
+    AUTHOR,
+    CATEGORY
+}
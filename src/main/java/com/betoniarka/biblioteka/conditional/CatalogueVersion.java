@@ -0,0 +1,31 @@
+package com.betoniarka.biblioteka.conditional;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+/**
+ * One of the {@link CatalogueVersions#STRIPES} counters of a catalogue collection; the version of
+ * the collection is the sum of its counters.
+ */
+@Entity
+@Table(name = "catalogue_version")
+public class CatalogueVersion {
+
+    @Getter
+    @EmbeddedId
+    private CatalogueVersionId id;
+
+    @Getter
+    @Column(name = "changes", nullable = false)
+    private long changes;
+
+    public CatalogueVersion() {
+    }
+
+    public CatalogueVersion(CatalogueVersionId id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,42 @@
+package com.betoniarka.biblioteka.conditional;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.Getter;
+
+import java.util.Objects;
+
+@Embeddable
+public class CatalogueVersionId {
+
+    @Getter
+    @Column(name = "catalogue")
+    @Enumerated(EnumType.STRING)
+    private Catalogue catalogue;
+
+    @Getter
+    @Column(name = "stripe")
+    private int stripe;
+
+    public CatalogueVersionId() {
+    }
+
+    public CatalogueVersionId(Catalogue catalogue, int stripe) {
+        this.catalogue = catalogue;
+        this.stripe = stripe;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        CatalogueVersionId that = (CatalogueVersionId) o;
+        return stripe == that.stripe && catalogue == that.catalogue;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(catalogue, stripe);
+    }
+}
@@ -0,0 +1,26 @@
+package com.betoniarka.biblioteka.conditional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface CatalogueVersionRepository
+        extends JpaRepository<CatalogueVersion, CatalogueVersionId> {
+
+    @Query(
+            """
+                    select coalesce(sum(v.changes), 0) from CatalogueVersion v
+                    where v.id.catalogue = :catalogue""")
+    long sumChanges(@Param("catalogue") Catalogue catalogue);
+
+    @Transactional
+    @Modifying
+    @Query(
+            """
+                    update CatalogueVersion v
+                    set v.changes = v.changes + 1
+                    where v.id.catalogue = :catalogue and v.id.stripe = :stripe""")
+    int increment(@Param("catalogue") Catalogue catalogue, @Param("stripe") int stripe);
+}
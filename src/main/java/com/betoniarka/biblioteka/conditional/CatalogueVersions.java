@@ -0,0 +1,86 @@
+package com.betoniarka.biblioteka.conditional;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Versions of the catalogue collections, the validators of their conditional {@code GET}s.
+ *
+ * <p>Every transaction that inserts, updates or deletes a book, author or category calls {@link
+ * #changed}. Right before it commits, the transaction flushes and then increments one of the {@link
+ * #STRIPES} {@link CatalogueVersion} rows of each collection it changed; a version is the sum of
+ * those rows. The counter commits together with the change, so versions follow commit order and a
+ * version read before a body is never newer than that body.
+ *
+ * <p>The counter rows are locked only from that point to the commit, after every other lock of the
+ * transaction and in {@link Catalogue} order, so writers cannot deadlock on them; the stripes keep
+ * concurrent borrows from queueing behind a single row.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogueVersions {
+
+    static final int STRIPES = 8;
+
+    private final CatalogueVersionRepository repository;
+    private final EntityManager entityManager;
+
+    public long current(Catalogue catalogue) {
+        return repository.sumChanges(catalogue);
+    }
+
+    /** Counts a change of {@code catalogue} when the surrounding transaction commits. */
+    public void changed(Catalogue catalogue) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            repository.increment(catalogue, ThreadLocalRandom.current().nextInt(STRIPES));
+            return;
+        }
+        for (var synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Increment increment) {
+                increment.catalogues.add(catalogue);
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new Increment(catalogue));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        for (var catalogue : Catalogue.values()) {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                var id = new CatalogueVersionId(catalogue, stripe);
+                if (!repository.existsById(id)) {
+                    repository.save(new CatalogueVersion(id));
+                }
+            }
+        }
+    }
+
+    /** {@link EnumSet} iterates in declaration order, which is the lock order of the counters. */
+    private final class Increment implements TransactionSynchronization {
+
+        private final Set<Catalogue> catalogues;
+
+        Increment(Catalogue catalogue) {
+            this.catalogues = EnumSet.of(catalogue);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush();
+            int stripe = ThreadLocalRandom.current().nextInt(STRIPES);
+            catalogues.forEach(catalogue -> repository.increment(catalogue, stripe));
+        }
+    }
+}
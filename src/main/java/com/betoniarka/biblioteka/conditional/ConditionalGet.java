@@ -0,0 +1,49 @@
+package com.betoniarka.biblioteka.conditional;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Answers {@code If-None-Match} / {@code If-Modified-Since} from a version read before the body.
+ * When a method returns {@code true} the response is already a {@code 304}, and the controller
+ * returns {@code null}; otherwise the {@code ETag} (and {@code Last-Modified}) headers are set for the
+ * body that follows.
+ *
+ * <p>Collections are validated by their {@link CatalogueVersions} version, which follows commit
+ * order. Reading it first means a concurrent commit can only pair a newer body with an older ETag,
+ * which costs the client one extra full response; a stale body is never confirmed. Single resources
+ * are validated by the {@code last_modified} column of their row.
+ */
+public final class ConditionalGet {
+
+    /** Replaces the {@code no-store} Spring Security sends by default, so clients keep the body. */
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalGet() {
+    }
+
+    public static boolean notModified(ServletWebRequest request, Instant lastModified) {
+        allowRevalidation(request);
+        return request.checkNotModified(eTag(lastModified), lastModified.toEpochMilli());
+    }
+
+    public static boolean notModified(ServletWebRequest request, long collectionVersion) {
+        allowRevalidation(request);
+        return request.checkNotModified("v" + collectionVersion);
+    }
+
+    private static void allowRevalidation(ServletWebRequest request) {
+        var response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+    }
+
+    private static String eTag(Instant lastModified) {
+        return Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, lastModified));
+    }
+}
@@ -0,0 +1,49 @@
+package com.betoniarka.biblioteka.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs {@code @Async} methods on the same kind of threads as requests: a virtual thread per task
+ * while {@code spring.threads.virtual.enabled} is {@code true}, otherwise a pool of {@code
+ * library.async.poolSize} platform threads.
+ *
+ * <p>Boot's own {@code applicationTaskExecutor} backs off because other executors are defined, so
+ * the executor is set up here explicitly.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfiguration implements AsyncConfigurer {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${library.async.poolSize:8}")
+    private int poolSize;
+
+    @Bean
+    public Executor asyncExecutor() {
+        if (virtualThreads) {
+            var executor = new SimpleAsyncTaskExecutor("async-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("async-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        return executor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor();
+    }
+}
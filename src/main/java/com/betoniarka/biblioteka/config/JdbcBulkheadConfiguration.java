@@ -0,0 +1,49 @@
+package com.betoniarka.biblioteka.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application's {@link DataSource} in a {@link BoundedDataSource}.
+ *
+ * <p>On platform threads the request pool already bounds how many callers wait for a connection,
+ * and Hikari fails them after its own {@code connection-timeout}, so the bulkhead stays off. On
+ * virtual threads ({@code spring.threads.virtual.enabled}) every request has a thread of its own;
+ * the bulkhead then takes exactly the pool's {@code maximumPoolSize} permits, so it never limits
+ * more than the pool does and only moves the queue in front of it, in arrival order.
+ *
+ * <p>{@code library.db.maxConcurrency} overrides the permits either way; a value of {@code 0} or
+ * less turns the bulkhead off. Waiting callers give up after {@code library.db.acquireTimeout}.
+ */
+@Configuration
+public class JdbcBulkheadConfiguration {
+
+    @Bean
+    static BeanPostProcessor jdbcBulkhead(Environment environment) {
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        Integer maxConcurrency = environment.getProperty("library.db.maxConcurrency", Integer.class);
+        var acquireTimeout =
+                environment.getProperty("library.db.acquireTimeout", Duration.class, Duration.ofSeconds(10));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                int permits = maxConcurrency != null ? maxConcurrency : virtualThreads ? poolSize(dataSource) : 0;
+                return permits > 0 ? new BoundedDataSource(dataSource, permits, acquireTimeout) : bean;
+            }
+        };
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.betoniarka.biblioteka.exceptions;
+
+/**
+ * A borrow refused because of the user rather than the book: the borrow limit is reached or the
+ * user already has the book. Waiting for another copy does not help.
+ */
+public class BorrowNotAllowedException extends ResourceConflictException {
+    public BorrowNotAllowedException(String message) {
+        super(message);
+    }
+}
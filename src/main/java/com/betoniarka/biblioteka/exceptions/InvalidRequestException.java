@@ -0,0 +1,7 @@
+package com.betoniarka.biblioteka.exceptions;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
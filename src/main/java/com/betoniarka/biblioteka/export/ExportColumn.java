@@ -0,0 +1,7 @@
+package com.betoniarka.biblioteka.export;
+
+import java.util.function.Function;
+
+/** A CSV column: its header and how to read the value from an exported row. */
+public record ExportColumn<T>(String header, Function<T, ?> value) {
+}
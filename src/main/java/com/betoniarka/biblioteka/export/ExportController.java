@@ -0,0 +1,52 @@
+package com.betoniarka.biblioteka.export;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService service;
+
+    @GetMapping("/books")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<StreamingResponseBody> books(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return stream("books", format, out -> service.exportBooks(format, out));
+    }
+
+    @GetMapping("/borrows")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<StreamingResponseBody> borrows(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return stream("borrows", format, out -> service.exportBorrows(format, out));
+    }
+
+    @GetMapping("/appusers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
+    public ResponseEntity<StreamingResponseBody> appUsers(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return stream("appusers", format, out -> service.exportAppUsers(format, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(
+            String name, ExportFormat format, StreamingResponseBody body) {
+        var disposition =
+                ContentDisposition.attachment().filename(name + "." + format.extension()).build();
+
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
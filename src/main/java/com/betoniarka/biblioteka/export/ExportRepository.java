@@ -0,0 +1,43 @@
+package com.betoniarka.biblioteka.export;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.borrow.Borrow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+
+import java.util.stream.Stream;
+
+/**
+ * Read-only streams over whole tables, in id order. Rows are fetched from the JDBC cursor in chunks
+ * of {@link #FETCH_SIZE} and must be consumed inside a transaction.
+ */
+public interface ExportRepository extends Repository<Book, Long> {
+
+    int FETCH_SIZE = 500;
+
+    @Query("select b from Book b order by b.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Book> streamBooks();
+
+    /** Left joins keep borrows whose book or user column is empty, as the export always has. */
+    @Query("select b from Borrow b left join fetch b.book left join fetch b.appUser order by b.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Borrow> streamBorrows();
+
+    @Query("select u from AppUser u order by u.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<AppUser> streamAppUsers();
+}
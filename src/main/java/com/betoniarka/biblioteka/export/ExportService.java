@@ -0,0 +1,105 @@
+package com.betoniarka.biblioteka.export;
+
+import com.betoniarka.biblioteka.appuser.AppUserMapper;
+import com.betoniarka.biblioteka.appuser.dto.AppUserResponseDto;
+import com.betoniarka.biblioteka.book.BookMapper;
+import com.betoniarka.biblioteka.book.dto.BookResponseDto;
+import com.betoniarka.biblioteka.borrow.BorrowMapper;
+import com.betoniarka.biblioteka.borrow.dto.BorrowResponseDto;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables as NDJSON or CSV with constant memory.
+ *
+ * <p>Each row is mapped with the regular MapStruct mapper and written immediately. Every {@link
+ * ExportRepository#FETCH_SIZE} rows the output is flushed and the persistence context cleared, so
+ * already written entities can be garbage collected.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final List<ExportColumn<BookResponseDto>> BOOK_COLUMNS =
+            List.of(
+                    new ExportColumn<>("id", BookResponseDto::id),
+                    new ExportColumn<>("title", BookResponseDto::title),
+                    new ExportColumn<>("count", BookResponseDto::count),
+                    new ExportColumn<>("authorId", BookResponseDto::authorId));
+
+    private static final List<ExportColumn<BorrowResponseDto>> BORROW_COLUMNS =
+            List.of(
+                    new ExportColumn<>("id", BorrowResponseDto::id),
+                    new ExportColumn<>("borrowedAt", BorrowResponseDto::borrowedAt),
+                    new ExportColumn<>("returnedAt", BorrowResponseDto::returnedAt),
+                    new ExportColumn<>("borrowDuration", BorrowResponseDto::borrowDuration),
+                    new ExportColumn<>("bookId", borrow -> borrow.book() == null ? null : borrow.book().id()),
+                    new ExportColumn<>(
+                            "bookTitle", borrow -> borrow.book() == null ? null : borrow.book().title()),
+                    new ExportColumn<>(
+                            "appUserId", borrow -> borrow.appUser() == null ? null : borrow.appUser().id()),
+                    new ExportColumn<>(
+                            "username", borrow -> borrow.appUser() == null ? null : borrow.appUser().username()));
+
+    private static final List<ExportColumn<AppUserResponseDto>> APP_USER_COLUMNS =
+            List.of(
+                    new ExportColumn<>("id", AppUserResponseDto::id),
+                    new ExportColumn<>("username", AppUserResponseDto::username),
+                    new ExportColumn<>("firstname", AppUserResponseDto::firstname),
+                    new ExportColumn<>("lastname", AppUserResponseDto::lastname),
+                    new ExportColumn<>("email", AppUserResponseDto::email),
+                    new ExportColumn<>("role", AppUserResponseDto::role));
+
+    private final ExportRepository repository;
+    private final BookMapper bookMapper;
+    private final BorrowMapper borrowMapper;
+    private final AppUserMapper appUserMapper;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+
+    public void exportBooks(ExportFormat format, OutputStream out) {
+        try (var rows = repository.streamBooks()) {
+            export(rows, bookMapper::toDto, new ExportWriter<>(format, BOOK_COLUMNS, jsonMapper, out));
+        }
+    }
+
+    public void exportBorrows(ExportFormat format, OutputStream out) {
+        try (var rows = repository.streamBorrows()) {
+            export(
+                    rows, borrowMapper::toDto, new ExportWriter<>(format, BORROW_COLUMNS, jsonMapper, out));
+        }
+    }
+
+    public void exportAppUsers(ExportFormat format, OutputStream out) {
+        try (var rows = repository.streamAppUsers()) {
+            export(
+                    rows,
+                    appUserMapper::toDto,
+                    new ExportWriter<>(format, APP_USER_COLUMNS, jsonMapper, out));
+        }
+    }
+
+    private <E, D> void export(Stream<E> rows, Function<E, D> mapper, ExportWriter<D> writer) {
+        writer.writeHeader();
+
+        long written = 0;
+        for (var iterator = rows.iterator(); iterator.hasNext(); ) {
+            writer.write(mapper.apply(iterator.next()));
+
+            if (++written % ExportRepository.FETCH_SIZE == 0) {
+                writer.flush();
+                entityManager.clear();
+            }
+        }
+        writer.flush();
+    }
+}
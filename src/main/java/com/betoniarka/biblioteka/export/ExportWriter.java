@@ -0,0 +1,83 @@
+package com.betoniarka.biblioteka.export;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes exported rows one by one: NDJSON serializes the whole DTO per line, CSV writes the given
+ * columns (RFC 4180 quoting) after a header line. Nothing is buffered beyond the output stream.
+ */
+class ExportWriter<T> {
+
+    private static final byte[] LINE_SEPARATOR = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ExportFormat format;
+    private final List<ExportColumn<T>> columns;
+    private final JsonMapper jsonMapper;
+    private final OutputStream out;
+
+    ExportWriter(
+            ExportFormat format, List<ExportColumn<T>> columns, JsonMapper jsonMapper, OutputStream out) {
+        this.format = format;
+        this.columns = columns;
+        this.jsonMapper = jsonMapper;
+        this.out = out;
+    }
+
+    void writeHeader() {
+        if (format == ExportFormat.CSV) {
+            writeLine(columns.stream().map(ExportColumn::header).map(ExportWriter::csvField));
+        }
+    }
+
+    void write(T row) {
+        try {
+            switch (format) {
+                case NDJSON -> {
+                    out.write(jsonMapper.writeValueAsBytes(row));
+                    out.write(LINE_SEPARATOR);
+                }
+                case CSV -> writeLine(columns.stream().map(column -> csvField(column.value().apply(row))));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLine(Stream<String> fields) {
+        try {
+            out.write(fields.collect(Collectors.joining(",")).getBytes(StandardCharsets.UTF_8));
+            out.write(LINE_SEPARATOR);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        boolean needsQuoting =
+                text.indexOf(',') >= 0
+                        || text.indexOf('"') >= 0
+                        || text.indexOf('\n') >= 0
+                        || text.indexOf('\r') >= 0;
+        return needsQuoting ? '"' + text.replace("\"", "\"\"") + '"' : text;
+    }
+}
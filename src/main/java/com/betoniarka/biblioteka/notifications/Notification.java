@@ -5,15 +5,22 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.util.Objects;
 
 @Entity
-@Table(name = "notifications")
+@Table(
+        name = "notifications",
+        indexes = {
+                @Index(name = "idx_notifications_app_user_created", columnList = "app_user_id, created_at"),
+                @Index(name = "idx_notifications_created", columnList = "created_at")
+        })
 public class Notification {
 
     @Getter
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private long id;
 
     @Getter
@@ -27,11 +34,25 @@ public class Notification {
     @JoinColumn(name = "app_user_id")
     private AppUser appUser;
 
+    @Getter
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /** {@code null} while the notification is unread. */
+    @Getter
+    @Column(name = "read_at")
+    private Instant readAt;
+
     public Notification() {
     }
 
-    public Notification(String message) {
+    public Notification(String message, Instant createdAt) {
         this.message = message;
+        this.createdAt = createdAt;
+    }
+
+    public boolean isRead() {
+        return readAt != null;
     }
 
     @Override
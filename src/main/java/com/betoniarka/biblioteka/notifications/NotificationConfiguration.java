@@ -0,0 +1,16 @@
+package com.betoniarka.biblioteka.notifications;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class NotificationConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService notificationDispatchExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
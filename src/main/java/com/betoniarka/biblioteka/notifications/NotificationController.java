@@ -1,26 +1,82 @@
 package com.betoniarka.biblioteka.notifications;
 
 import com.betoniarka.biblioteka.notifications.dto.NotificationResponseDto;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.time.Instant;
 
+/** Notifications of one app user, readable by that user and by staff. */
 @RestController
 @RequestMapping("appusers/{id}/notifications")
+@PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE') or #id == principal.appUserId()")
 @RequiredArgsConstructor
 public class NotificationController {
 
     private final NotificationRepository repository;
     private final NotificationMapper mapper;
+    private final NotificationSubscriptions subscriptions;
+    private final NotificationService service;
 
+    /**
+     * Without {@code after}, {@code since} or {@code unread} this is a plain offset page. Any of
+     * them switches to keyset paging by id, limited to notifications created at or after {@code
+     * since} and, with {@code unread=true}, to unread ones.
+     */
     @GetMapping
-    public List<NotificationResponseDto> getNotifications(@PathVariable Long id) {
-        var notifications = repository.getNotificationsByAppUser_Id(id);
-        return notifications.stream().map(mapper::toDto).toList();
+    public PageResponse<NotificationResponseDto> getNotifications(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Instant since,
+            @RequestParam(defaultValue = "false") boolean unread,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        if (after == null && since == null && !unread) {
+            return PageResponse.of(
+                    repository.getNotificationsByAppUser_Id(id, pageable).map(mapper::toDto));
+        }
+
+        var keyset = new Keyset(after == null ? 0 : after, pageable.getPageSize());
+        var rows =
+                repository.findPage(
+                        id,
+                        since == null ? Instant.EPOCH : since,
+                        keyset.after(),
+                        unread,
+                        keyset.limit());
+        return PageResponse.of(rows, keyset, Notification::getId, mapper::toDto);
+    }
+
+    /** Marks the notifications up to {@code upTo} (all of them without it) as read. */
+    @PostMapping("/read")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void markRead(@PathVariable Long id, @RequestParam(required = false) Long upTo) {
+        service.markRead(id, upTo);
     }
 
+    /**
+     * Pushes the user's new notifications as server-sent events named {@code notification}, each
+     * with the notification id as event id. A reconnecting client sends {@code Last-Event-ID} and gets
+     * everything it missed first.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @PathVariable Long id,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return subscriptions.subscribe(id, lastEventId);
+    }
 }
@@ -0,0 +1,199 @@
+package com.betoniarka.biblioteka.notifications;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns {@link NotificationOutboxEntry} rows into {@link Notification}s off the request threads.
+ *
+ * <p>Every {@code library.notifications.dispatchInterval} one drain runs on a virtual thread. It
+ * takes due entries in batches of {@code library.notifications.dispatchBatchSize}, creates their
+ * notifications with batched inserts and deletes the entries in one transaction, then publishes
+ * {@link NotificationsCreatedEvent} once that transaction has committed. If a batch fails, its
+ * entries are retried one by one and the failing ones are rescheduled with exponential backoff from
+ * {@code library.notifications.retryBackoff}; an entry that fails {@code
+ * library.notifications.maxAttempts} times is logged and deleted. Entries of users deleted in the
+ * meantime are dropped.
+ */
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final AppUserRepository appUserRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final Executor executor;
+
+    @Value("${library.notifications.dispatchBatchSize:200}")
+    private int batchSize;
+
+    @Value("${library.notifications.maxAttempts:8}")
+    private int maxAttempts;
+
+    @Value("${library.notifications.retryBackoff:1s}")
+    private Duration retryBackoff;
+
+    public NotificationDispatcher(
+            NotificationOutboxRepository outboxRepository,
+            NotificationRepository notificationRepository,
+            AppUserRepository appUserRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            Clock clock,
+            @Qualifier("notificationDispatchExecutor") Executor executor) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.appUserRepository = appUserRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.executor = executor;
+    }
+
+    static Instant nextAttemptAt(Instant now, int attempts, int maxAttempts, Duration backoff) {
+        if (attempts >= maxAttempts) {
+            return null;
+        }
+        return now.plus(backoff.multipliedBy(1L << Math.min(attempts - 1, 30)));
+    }
+
+    @Scheduled(fixedDelayString = "${library.notifications.dispatchInterval:500ms}")
+    public void scheduleDrain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(
+                () -> {
+                    try {
+                        drain();
+                    } catch (RuntimeException e) {
+                        log.warn("Notification dispatch failed.", e);
+                    } finally {
+                        draining.set(false);
+                    }
+                });
+    }
+
+    /**
+     * Dispatches due entries until less than a full batch is left.
+     *
+     * @return the number of notifications created
+     */
+    public int drain() {
+        int created = 0;
+        while (true) {
+            var due = outboxRepository.findDue(clock.instant(), Limit.of(batchSize));
+            if (due.isEmpty()) {
+                return created;
+            }
+            created += dispatch(due);
+            if (due.size() < batchSize) {
+                return created;
+            }
+        }
+    }
+
+    private int dispatch(List<NotificationOutboxEntry> batch) {
+        List<Notification> created;
+        try {
+            created = transactionTemplate.execute(status -> materialize(batch));
+        } catch (RuntimeException e) {
+            log.warn("Notification batch of {} entries failed, retrying one by one.", batch.size(), e);
+            created = new ArrayList<>();
+            for (var entry : batch) {
+                try {
+                    created.addAll(transactionTemplate.execute(status -> materialize(List.of(entry))));
+                } catch (RuntimeException entryFailure) {
+                    reschedule(entry, entryFailure);
+                }
+            }
+        }
+        return publish(created);
+    }
+
+    private List<Notification> materialize(List<NotificationOutboxEntry> entries) {
+        var appUsers =
+                appUserRepository
+                        .findAllById(
+                                entries.stream()
+                                        .map(NotificationOutboxEntry::getAppUserId)
+                                        .collect(Collectors.toSet()))
+                        .stream()
+                        .collect(Collectors.toMap(AppUser::getId, Function.identity()));
+
+        var notifications = new ArrayList<Notification>(entries.size());
+        for (var entry : entries) {
+            var appUser = appUsers.get(entry.getAppUserId());
+            if (appUser != null) {
+                var notification = new Notification(entry.getMessage(), entry.getCreatedAt());
+                notification.setAppUser(appUser);
+                notifications.add(notification);
+            }
+        }
+
+        notificationRepository.saveAll(notifications);
+        outboxRepository.deleteAllByIdInBatch(
+                entries.stream().map(NotificationOutboxEntry::getId).toList());
+        return notifications;
+    }
+
+    private int publish(List<Notification> notifications) {
+        if (!notifications.isEmpty()) {
+            try {
+                eventPublisher.publishEvent(new NotificationsCreatedEvent(notifications));
+            } catch (RuntimeException e) {
+                // Already committed: a retry would only duplicate them, and streams replay from Last-Event-ID
+                log.warn("Publishing {} created notifications failed.", notifications.size(), e);
+            }
+        }
+        return notifications.size();
+    }
+
+    private void reschedule(NotificationOutboxEntry entry, RuntimeException failure) {
+        int attempts = entry.getAttempts() + 1;
+        var next = nextAttemptAt(clock.instant(), attempts, maxAttempts, retryBackoff);
+        if (next == null) {
+            log.error(
+                    "Giving up on notification outbox entry {} for user {} after {} attempts, dropping message: {}",
+                    entry.getId(),
+                    entry.getAppUserId(),
+                    attempts,
+                    entry.getMessage(),
+                    failure);
+            transactionTemplate.executeWithoutResult(
+                    status -> outboxRepository.deleteAllByIdInBatch(List.of(entry.getId())));
+            return;
+        }
+        log.warn(
+                "Notification outbox entry {} failed (attempt {}), retrying at {}.",
+                entry.getId(),
+                attempts,
+                next,
+                failure);
+        transactionTemplate.executeWithoutResult(
+                status -> outboxRepository.reschedule(entry.getId(), attempts, next));
+    }
+}
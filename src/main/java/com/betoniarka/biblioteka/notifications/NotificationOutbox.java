@@ -0,0 +1,25 @@
+package com.betoniarka.biblioteka.notifications;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+/**
+ * Entry point for sending a notification from a domain transaction: one insert into {@code
+ * notification_outbox}, with the {@link Notification} itself created by {@link
+ * NotificationDispatcher} after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    private final NotificationOutboxRepository repository;
+    private final Clock clock;
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void add(long appUserId, String message) {
+        repository.save(new NotificationOutboxEntry(appUserId, message, clock.instant()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.betoniarka.biblioteka.notifications;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * A notification waiting to be created by {@link NotificationDispatcher}. Written in the same
+ * transaction as the change it reports, so it exists exactly when that change was committed.
+ */
+@Entity
+@Table(
+        name = "notification_outbox",
+        indexes = @Index(name = "idx_notification_outbox_next_attempt", columnList = "next_attempt_at"))
+public class NotificationOutboxEntry {
+
+    @Getter
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Getter
+    @Column(name = "app_user_id", nullable = false)
+    private long appUserId;
+
+    @Getter
+    @Column(nullable = false)
+    private String message;
+
+    @Getter
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Getter
+    @Column(nullable = false)
+    private int attempts;
+
+    /** When the entry is due; an entry that has used up its attempts is deleted instead. */
+    @Getter
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    public NotificationOutboxEntry() {
+    }
+
+    public NotificationOutboxEntry(long appUserId, String message, Instant createdAt) {
+        this.appUserId = appUserId;
+        this.message = message;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+}
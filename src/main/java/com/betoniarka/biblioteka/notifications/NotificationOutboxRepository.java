@@ -0,0 +1,31 @@
+package com.betoniarka.biblioteka.notifications;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+
+    @Query(
+            """
+                    select e from NotificationOutboxEntry e
+                    where e.nextAttemptAt <= :now
+                    order by e.id""")
+    List<NotificationOutboxEntry> findDue(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query(
+            """
+                    update NotificationOutboxEntry e
+                    set e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt
+                    where e.id = :id""")
+    void reschedule(
+            @Param("id") long id,
+            @Param("attempts") int attempts,
+            @Param("nextAttemptAt") Instant nextAttemptAt);
+}
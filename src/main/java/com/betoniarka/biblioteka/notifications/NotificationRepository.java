@@ -1,12 +1,59 @@
 package com.betoniarka.biblioteka.notifications;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    List<Notification> getNotificationsByAppUser_Id(Long id);
+    Page<Notification> getNotificationsByAppUser_Id(Long id, Pageable pageable);
+
+    List<Notification> findByAppUser_IdAndIdGreaterThanOrderByIdAsc(
+            Long appUserId, long id, Limit limit);
+
+    /**
+     * Keyset page of the user's notifications created at or after {@code since}, optionally only the
+     * unread ones. Served by the {@code (app_user_id, created_at)} index.
+     */
+    @Query(
+            """
+                    select n from Notification n
+                    where n.appUser.id = :appUserId
+                      and n.createdAt >= :since
+                      and n.id > :after
+                      and (:unreadOnly = false or n.readAt is null)
+                    order by n.id""")
+    List<Notification> findPage(
+            @Param("appUserId") long appUserId,
+            @Param("since") Instant since,
+            @Param("after") long after,
+            @Param("unreadOnly") boolean unreadOnly,
+            Limit limit);
+
+    /**
+     * Marks the user's unread notifications up to and including {@code upTo} as read.
+     *
+     * @return the number of notifications marked
+     */
+    @Modifying
+    @Query(
+            """
+                    update Notification n set n.readAt = :readAt
+                    where n.appUser.id = :appUserId and n.id <= :upTo and n.readAt is null""")
+    int markRead(
+            @Param("appUserId") long appUserId,
+            @Param("upTo") long upTo,
+            @Param("readAt") Instant readAt);
+
+    @Query("select n.id from Notification n where n.createdAt < :cutoff")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") Instant cutoff, Limit limit);
 }
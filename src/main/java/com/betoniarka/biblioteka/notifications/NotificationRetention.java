@@ -0,0 +1,73 @@
+package com.betoniarka.biblioteka.notifications;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes notifications older than {@code library.notifications.retention}, following {@code
+ * library.notifications.purgeCron}.
+ *
+ * <p>Rows are deleted in chunks of {@code library.notifications.purgeBatchSize}, each in its own
+ * short transaction, so a large backlog never holds locks on the table for long.
+ */
+@Slf4j
+@Component
+public class NotificationRetention {
+
+    private final NotificationRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${library.notifications.retention:90d}")
+    private Duration retention;
+
+    @Value("${library.notifications.purgeBatchSize:1000}")
+    private int batchSize;
+
+    public NotificationRetention(
+            NotificationRepository repository, TransactionTemplate transactionTemplate, Clock clock) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${library.notifications.purgeCron:0 30 3 * * *}")
+    public void schedulePurge() {
+        purge();
+    }
+
+    /**
+     * @return the number of notifications deleted
+     */
+    public int purge() {
+        var cutoff = clock.instant().minus(retention);
+        int deleted = 0;
+        while (true) {
+            int chunk = transactionTemplate.execute(status -> deleteChunk(cutoff));
+            deleted += chunk;
+            if (chunk < batchSize) {
+                break;
+            }
+        }
+        if (deleted > 0) {
+            log.info("Purged {} notifications created before {}.", deleted, cutoff);
+        }
+        return deleted;
+    }
+
+    private int deleteChunk(Instant cutoff) {
+        var ids = repository.findIdsCreatedBefore(cutoff, Limit.of(batchSize));
+        if (!ids.isEmpty()) {
+            repository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+}
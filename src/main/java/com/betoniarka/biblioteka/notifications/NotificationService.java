@@ -0,0 +1,26 @@
+package com.betoniarka.biblioteka.notifications;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class NotificationService {
+
+    private final NotificationRepository repository;
+    private final Clock clock;
+
+    /**
+     * Marks the user's notifications as read with a single update.
+     *
+     * @param upTo highest notification id to mark, {@code null} for all of them
+     * @return the number of notifications that were unread
+     */
+    public int markRead(long appUserId, Long upTo) {
+        return repository.markRead(appUserId, upTo == null ? Long.MAX_VALUE : upTo, clock.instant());
+    }
+}
@@ -0,0 +1,203 @@
+package com.betoniarka.biblioteka.notifications;
+
+import com.betoniarka.biblioteka.notifications.dto.NotificationResponseDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-process registry of open notification streams, keyed by app user id.
+ *
+ * <p>New notifications are pushed as they are created ({@link NotificationsCreatedEvent}), so
+ * subscribed clients don't have to poll. A client reconnecting with {@code Last-Event-ID} first
+ * gets every notification after that id replayed. The subscription is registered before the replay
+ * starts and holds back live notifications until it ends; the replay pages with its own cursor, and
+ * the held notifications are sent afterwards, skipping ids the replay already sent, so nothing is
+ * lost or repeated in between. Streams close after {@code library.notifications.streamTimeout};
+ * clients are expected to reconnect.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationSubscriptions {
+
+    private static final int REPLAY_PAGE_SIZE = 100;
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final NotificationRepository repository;
+    private final NotificationMapper mapper;
+
+    @Value("${library.notifications.streamTimeout:30m}")
+    private Duration timeout;
+
+    public SseEmitter subscribe(long appUserId, Long lastEventId) {
+        var emitter = new SseEmitter(timeout.toMillis());
+        var subscription =
+                new Subscription(emitter, lastEventId == null ? 0 : lastEventId, lastEventId != null);
+
+        subscriptions.computeIfAbsent(appUserId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        Runnable unsubscribe = () -> unsubscribe(appUserId, subscription);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        if (lastEventId != null) {
+            replay(appUserId, subscription, lastEventId);
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onNotificationsCreated(NotificationsCreatedEvent event) {
+        var byAppUser =
+                event.notifications().stream()
+                        .collect(
+                                Collectors.groupingBy(
+                                        notification -> notification.getAppUser().getId(),
+                                        Collectors.mapping(mapper::toDto, Collectors.toList())));
+
+        byAppUser.forEach(
+                (appUserId, notifications) -> {
+                    var userSubscriptions = subscriptions.get(appUserId);
+                    if (userSubscriptions != null) {
+                        userSubscriptions.forEach(
+                                subscription ->
+                                        deliver(appUserId, subscription, () -> subscription.push(notifications)));
+                    }
+                });
+    }
+
+    /** Keeps idle connections open through proxies and finds clients that went away. */
+    @Scheduled(fixedDelayString = "${library.notifications.streamHeartbeat:30s}")
+    public void heartbeat() {
+        subscriptions.forEach(
+                (appUserId, userSubscriptions) ->
+                        userSubscriptions.forEach(
+                                subscription -> {
+                                    try {
+                                        subscription.heartbeat();
+                                    } catch (IOException | IllegalStateException e) {
+                                        unsubscribe(appUserId, subscription);
+                                    }
+                                }));
+    }
+
+    int subscriberCount(long appUserId) {
+        var userSubscriptions = subscriptions.get(appUserId);
+        return userSubscriptions == null ? 0 : userSubscriptions.size();
+    }
+
+    private void replay(long appUserId, Subscription subscription, long lastEventId) {
+        long cursor = lastEventId;
+        List<NotificationResponseDto> page;
+        do {
+            page =
+                    repository
+                            .findByAppUser_IdAndIdGreaterThanOrderByIdAsc(
+                                    appUserId, cursor, Limit.of(REPLAY_PAGE_SIZE))
+                            .stream()
+                            .map(mapper::toDto)
+                            .toList();
+            var replayed = page;
+            if (!deliver(appUserId, subscription, () -> subscription.replay(replayed))) {
+                return;
+            }
+            if (!page.isEmpty()) {
+                cursor = page.getLast().id();
+            }
+        } while (page.size() == REPLAY_PAGE_SIZE);
+        deliver(appUserId, subscription, subscription::endReplay);
+    }
+
+    private boolean deliver(long appUserId, Subscription subscription, Delivery delivery) {
+        try {
+            delivery.run();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Notification stream of app user {} closed.", appUserId, e);
+            unsubscribe(appUserId, subscription);
+            return false;
+        }
+    }
+
+    private void unsubscribe(long appUserId, Subscription subscription) {
+        subscriptions.computeIfPresent(
+                appUserId,
+                (id, userSubscriptions) -> {
+                    userSubscriptions.remove(subscription);
+                    return userSubscriptions.isEmpty() ? null : userSubscriptions;
+                });
+    }
+
+    private interface Delivery {
+
+        void run() throws IOException;
+    }
+
+    private static final class Subscription {
+
+        private final SseEmitter emitter;
+        private long lastSentId;
+        /** Live notifications held back while a replay runs, {@code null} once it has ended. */
+        private List<NotificationResponseDto> held;
+
+        Subscription(SseEmitter emitter, long lastSentId, boolean replaying) {
+            this.emitter = emitter;
+            this.lastSentId = lastSentId;
+            this.held = replaying ? new ArrayList<>() : null;
+        }
+
+        synchronized void push(List<NotificationResponseDto> notifications) throws IOException {
+            if (held != null) {
+                held.addAll(notifications);
+                return;
+            }
+            send(notifications);
+        }
+
+        synchronized void replay(List<NotificationResponseDto> notifications) throws IOException {
+            send(notifications);
+        }
+
+        synchronized void endReplay() throws IOException {
+            var notifications = held;
+            held = null;
+            notifications.sort(Comparator.comparingLong(NotificationResponseDto::id));
+            send(notifications);
+        }
+
+        synchronized void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+        }
+
+        private void send(List<NotificationResponseDto> notifications) throws IOException {
+            for (var notification : notifications) {
+                if (notification.id() <= lastSentId) {
+                    continue;
+                }
+                emitter.send(
+                        SseEmitter.event()
+                                .id(Long.toString(notification.id()))
+                                .name("notification")
+                                .data(notification));
+                lastSentId = notification.id();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.betoniarka.biblioteka.notifications;
+
+import java.util.List;
+
+/** Published by {@link NotificationDispatcher} after a batch of notifications has been committed. */
+public record NotificationsCreatedEvent(List<Notification> notifications) {
+}
@@ -1,4 +1,6 @@
 package com.betoniarka.biblioteka.notifications.dto;
 
-public record NotificationResponseDto(long id, String message) {
+import java.time.Instant;
+
+public record NotificationResponseDto(long id, String message, Instant createdAt, boolean read) {
 }
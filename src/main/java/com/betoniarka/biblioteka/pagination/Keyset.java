@@ -0,0 +1,24 @@
+package com.betoniarka.biblioteka.pagination;
+
+import org.springframework.data.domain.Limit;
+
+/**
+ * Seek-by-id page request: rows with an id greater than {@code after}, in id order.
+ *
+ * <p>Unlike an offset, the cost of a page does not grow with its depth, and rows inserted or
+ * deleted meanwhile do not shift later pages.
+ */
+public record Keyset(long after, int size) {
+
+    /** Same bound as {@code spring.data.web.pageable.max-page-size}. */
+    public static final int MAX_SIZE = 100;
+
+    public Keyset {
+        size = Math.clamp(size, 1, MAX_SIZE);
+    }
+
+    /** One row more than the page, so its presence tells whether a next page exists. */
+    public Limit limit() {
+        return Limit.of(size + 1);
+    }
+}
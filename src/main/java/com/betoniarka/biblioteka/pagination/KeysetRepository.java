@@ -0,0 +1,14 @@
+package com.betoniarka.biblioteka.pagination;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+/** Keyset access for entities with a generated {@code long id}; see {@link Keyset}. */
+@NoRepositoryBean
+public interface KeysetRepository<T> extends Repository<T, Long> {
+
+    List<T> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+}
@@ -0,0 +1,54 @@
+package com.betoniarka.biblioteka.pagination;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Envelope returned by every list endpoint.
+ *
+ * <p>Offset pages ({@code ?page=&size=&sort=}) fill {@code page}, {@code totalElements} and {@code
+ * totalPages}. Keyset pages ({@code ?after=&size=}) skip the count query and fill {@code
+ * nextCursor}, the {@code after} value of the next page, instead.
+ */
+public record PageResponse<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        Long nextCursor,
+        Integer page,
+        Long totalElements,
+        Integer totalPages) {
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(
+                page.getContent(),
+                page.getSize(),
+                page.hasNext(),
+                null,
+                page.getNumber(),
+                page.getTotalElements(),
+                page.getTotalPages());
+    }
+
+    /**
+     * @param rows result of a query limited with {@link Keyset#limit()}
+     */
+    public static <E, T> PageResponse<T> of(
+            List<E> rows, Keyset keyset, ToLongFunction<E> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > keyset.size();
+        List<E> pageRows = hasNext ? rows.subList(0, keyset.size()) : rows;
+        Long nextCursor = hasNext ? idOf.applyAsLong(pageRows.getLast()) : null;
+
+        return new PageResponse<>(
+                pageRows.stream().map(mapper).toList(),
+                keyset.size(),
+                hasNext,
+                nextCursor,
+                null,
+                null,
+                null);
+    }
+}
@@ -0,0 +1,31 @@
+package com.betoniarka.biblioteka.pagination;
+
+import com.betoniarka.biblioteka.exceptions.InvalidRequestException;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Set;
+
+/**
+ * Properties a hand-written list query may be sorted by.
+ *
+ * <p>Spring Data appends the {@code sort} parameter to a {@code @Query} as is, so an unknown
+ * property only fails inside Hibernate, as a server error. Checking it up front answers {@code 400}
+ * like the derived queries do.
+ */
+public record SortProperties(Set<String> allowed) {
+
+    public SortProperties(String... allowed) {
+        this(Set.of(allowed));
+    }
+
+    public Pageable check(Pageable pageable) {
+        for (var order : pageable.getSort()) {
+            if (!allowed.contains(order.getProperty())) {
+                throw new InvalidRequestException(
+                        "Cannot sort by '%s', expected one of %s"
+                                .formatted(order.getProperty(), allowed.stream().sorted().toList()));
+            }
+        }
+        return pageable;
+    }
+}
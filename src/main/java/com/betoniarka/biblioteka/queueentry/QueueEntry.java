@@ -13,7 +13,18 @@ import java.util.Objects;
 @Entity
 @Table(
         name = "queue_entry",
-        uniqueConstraints = {@UniqueConstraint(columnNames = {"app_user_id", "book_id"})})
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"app_user_id", "book_id"}),
+                @UniqueConstraint(columnNames = {"book_id", "queue_position"})
+        },
+        indexes = @Index(name = "idx_queue_entry_book_timestamp", columnList = "book_id, timestamp"))
+@NamedEntityGraph(
+        name = "QueueEntry.withAppUserAndBook",
+        attributeNodes = {
+                @NamedAttributeNode("appUser"),
+                @NamedAttributeNode(value = "book", subgraph = "book")
+        },
+        subgraphs = @NamedSubgraph(name = "book", attributeNodes = @NamedAttributeNode("author")))
 public class QueueEntry {
 
     @Getter
@@ -27,6 +38,15 @@ public class QueueEntry {
     @NotNull(message = "timestamp is required")
     private Instant timestamp;
 
+    /**
+     * Place in the book's queue: increasing in join order, but not contiguous once entries leave, so
+     * only the ordering is meaningful.
+     */
+    @Getter
+    @Setter
+    @Column(name = "queue_position", nullable = false)
+    private long position;
+
     @Getter
     @Setter
     @ManyToOne
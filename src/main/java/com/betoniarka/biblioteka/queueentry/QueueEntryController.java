@@ -1,12 +1,13 @@
 package com.betoniarka.biblioteka.queueentry;
 
 import com.betoniarka.biblioteka.queueentry.dto.QueueEntryResponseDto;
+import com.betoniarka.biblioteka.security.AppUserDetails;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -25,14 +26,15 @@ public class QueueEntryController {
     @PostMapping("/join")
     @PreAuthorize("hasRole('APP_USER')")
     @ResponseStatus(HttpStatus.CREATED)
-    public QueueEntryResponseDto join(@PathVariable long bookId, Principal principal) {
-        return service.joinQueue(principal.getName(), bookId);
+    public QueueEntryResponseDto join(
+            @PathVariable long bookId, @AuthenticationPrincipal AppUserDetails principal) {
+        return service.joinQueue(principal.appUserId(), bookId);
     }
 
     @DeleteMapping("/leave")
     @PreAuthorize("hasRole('APP_USER')")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void leave(@PathVariable long bookId, Principal principal) {
-        service.leaveQueue(principal.getName(), bookId);
+    public void leave(@PathVariable long bookId, @AuthenticationPrincipal AppUserDetails principal) {
+        service.leaveQueue(principal.appUserId(), bookId);
     }
 }
@@ -1,17 +1,44 @@
 package com.betoniarka.biblioteka.queueentry;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Queue lookups go through the unique {@code (book_id, queue_position)} index and read only as many
+ * entries as there are copies, however long the queue is. Entry lists fetch their user and book in
+ * the same query.
+ */
 public interface QueueEntryRepository extends JpaRepository<QueueEntry, Long> {
 
     boolean existsByAppUserIdAndBookId(long appUserId, long bookId);
 
     Optional<QueueEntry> findByAppUserIdAndBookId(long appUserId, long bookId);
 
-    Optional<QueueEntry> findFirstByBookIdOrderByTimestampAsc(long bookId);
+    @EntityGraph("QueueEntry.withAppUserAndBook")
+    List<QueueEntry> findByBookIdOrderByPositionAsc(long bookId);
 
-    List<QueueEntry> findByBookIdOrderByTimestampAsc(long bookId);
+    @EntityGraph("QueueEntry.withAppUserAndBook")
+    List<QueueEntry> findByBookIdOrderByPositionAsc(long bookId, Limit limit);
+
+    /** Ids of the first users waiting for the book, in queue order. */
+    @Query("select e.appUser.id from QueueEntry e where e.book.id = :bookId order by e.position")
+    List<Long> findQueuedAppUserIds(@Param("bookId") long bookId, Limit limit);
+
+    @Query("select distinct e.book.id from QueueEntry e where e.book.count > 0")
+    List<Long> findBookIdsWithCopiesForQueue();
+
+    @Query("select coalesce(max(e.position), 0) from QueueEntry e where e.book.id = :bookId")
+    long findLastPosition(@Param("bookId") long bookId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from QueueEntry e where e.appUser.id = :appUserId and e.book.id = :bookId")
+    int deleteByAppUserIdAndBookId(
+            @Param("appUserId") long appUserId, @Param("bookId") long bookId);
 }
@@ -5,7 +5,6 @@ import com.betoniarka.biblioteka.book.BookRepository;
 import com.betoniarka.biblioteka.exceptions.ResourceNotFoundException;
 import com.betoniarka.biblioteka.queueentry.dto.QueueEntryResponseDto;
 import jakarta.transaction.Transactional;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,9 +17,6 @@ public class QueueEntryService {
     private final AppUserRepository appUserRepository;
     private final BookRepository bookRepository;
 
-    @Value("${library.queue.autoBorrowDurationDays:14}")
-    private int autoBorrowDurationDays;
-
     public QueueEntryService(
             QueueEntryRepository queueEntryRepository,
             AppUserRepository appUserRepository,
@@ -31,54 +27,40 @@ public class QueueEntryService {
     }
 
     public List<QueueEntryResponseDto> getQueueForBook(long bookId) {
-        return queueEntryRepository.findByBookIdOrderByTimestampAsc(bookId).stream()
+        return queueEntryRepository.findByBookIdOrderByPositionAsc(bookId).stream()
                 .map(this::toDto)
                 .toList();
     }
 
-    public QueueEntryResponseDto joinQueue(String username, long bookId) {
+    public QueueEntryResponseDto joinQueue(long appUserId, long bookId) {
         var user =
                 appUserRepository
-                        .findByUsername(username)
+                        .findById(appUserId)
                         .orElseThrow(
                                 () ->
                                         new ResourceNotFoundException(
-                                                "AppUser with username '%s' not found".formatted(username)));
+                                                "AppUser with id '%d' not found".formatted(appUserId)));
 
         var book =
                 bookRepository
-                        .findById(bookId)
+                        .findForUpdateById(bookId)
                         .orElseThrow(
                                 () ->
                                         new ResourceNotFoundException("Book with id '%d' not found".formatted(bookId)));
 
         var queueEntry = new QueueEntry();
+        queueEntry.setPosition(queueEntryRepository.findLastPosition(bookId) + 1);
         user.joinQueue(queueEntry, book);
 
         var saved = queueEntryRepository.save(queueEntry);
         return toDto(saved);
     }
 
-    public void leaveQueue(String username, long bookId) {
-        var user =
-                appUserRepository
-                        .findByUsername(username)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "AppUser with username '%s' not found".formatted(username)));
-
-        var entry =
-                queueEntryRepository
-                        .findByAppUserIdAndBookId(user.getId(), bookId)
-                        .orElseThrow(
-                                () ->
-                                        new ResourceNotFoundException(
-                                                "QueueEntry for user '%s' and book '%d' not found"
-                                                        .formatted(username, bookId)));
-
-        user.leaveQueue(entry);
-        queueEntryRepository.delete(entry);
+    /** Deletes the entry with a single statement, without loading the user or the entry. */
+    public void leaveQueue(long appUserId, long bookId) {
+        if (queueEntryRepository.deleteByAppUserIdAndBookId(appUserId, bookId) == 0)
+            throw new ResourceNotFoundException(
+                    "QueueEntry for user '%d' and book '%d' not found".formatted(appUserId, bookId));
     }
 
     private QueueEntryResponseDto toDto(QueueEntry entry) {
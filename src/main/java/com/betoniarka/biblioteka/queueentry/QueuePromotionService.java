@@ -0,0 +1,183 @@
+package com.betoniarka.biblioteka.queueentry;
+
+import com.betoniarka.biblioteka.book.BookRepository;
+import com.betoniarka.biblioteka.book.BookUpdatedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowReturnedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import com.betoniarka.biblioteka.exceptions.BorrowNotAllowedException;
+import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
+import com.betoniarka.biblioteka.notifications.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands copies that come back on the shelf to the users waiting for them.
+ *
+ * <p>A return, or a stock increase, only marks its book as pending once the transaction has
+ * committed. A scheduled worker drains pending books in batches of {@code
+ * library.queue.promotionBatchSize} off the request thread, so {@code POST /borrows/{id}/return}
+ * costs the same however long the queue is. Every promotion borrows the copy for the head of the
+ * queue for {@code library.queue.autoBorrowDurationDays} in its own transaction and notifies the
+ * user. A head user who cannot borrow (limit reached, book already borrowed) loses their place and
+ * is notified instead, so one user never blocks the rest of the queue.
+ *
+ * <p>A promotion that fails for any other reason (lock timeout, database busy) puts its book back
+ * after {@code library.queue.promotionRetryBackoff}, doubled on every further failure up to {@code
+ * library.queue.promotionMaxRetryBackoff}, so the copy is not left on the shelf until the next
+ * return.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueuePromotionService {
+
+    private final Set<Long> pendingBookIds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Retry> retries = new ConcurrentHashMap<>();
+
+    private final QueueEntryRepository queueEntryRepository;
+    private final BookRepository bookRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final BorrowService borrowService;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    @Value("${library.queue.autoBorrowDurationDays:14}")
+    private int autoBorrowDurationDays;
+
+    @Value("${library.queue.promotionBatchSize:100}")
+    private int batchSize;
+
+    @Value("${library.queue.promotionRetryBackoff:1s}")
+    private Duration retryBackoff;
+
+    @Value("${library.queue.promotionMaxRetryBackoff:5m}")
+    private Duration maxRetryBackoff;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBorrowReturned(BorrowReturnedEvent event) {
+        pendingBookIds.add(event.borrow().getBook().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookUpdated(BookUpdatedEvent event) {
+        if (event.book().getCount() > event.previousCount()) {
+            pendingBookIds.add(event.book().getId());
+        }
+    }
+
+    /** Picks up books whose promotion was lost with a restart. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        pendingBookIds.addAll(queueEntryRepository.findBookIdsWithCopiesForQueue());
+    }
+
+    @Scheduled(fixedDelayString = "${library.queue.promotionInterval:1s}")
+    public void promotePending() {
+        var now = clock.instant();
+        retries.forEach(
+                (bookId, retry) -> {
+                    if (!retry.notBefore().isAfter(now)) {
+                        pendingBookIds.add(bookId);
+                    }
+                });
+
+        var batch = new ArrayList<Long>(batchSize);
+        var iterator = pendingBookIds.iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+
+        for (long bookId : batch) {
+            try {
+                promote(bookId);
+                retries.remove(bookId);
+            } catch (RuntimeException e) {
+                var retry =
+                        retries.compute(
+                                bookId,
+                                (id, previous) ->
+                                        nextRetry(clock.instant(), previous == null ? 1 : previous.attempts() + 1));
+                log.warn(
+                        "Queue promotion for book {} failed, retrying at {}.", bookId, retry.notBefore(), e);
+            }
+        }
+    }
+
+    /**
+     * Promotes queued users of one book for as long as it has copies on the shelf.
+     *
+     * @return the number of users who got a copy
+     */
+    public int promote(long bookId) {
+        int promoted = 0;
+        while (true) {
+            var head = queueEntryRepository.findByBookIdOrderByPositionAsc(bookId, Limit.of(1));
+            if (head.isEmpty() || !hasCopies(bookId)) {
+                return promoted;
+            }
+
+            var entry = head.getFirst();
+            long appUserId = entry.getAppUser().getId();
+            String title = entry.getBook().getTitle();
+            try {
+                transactionTemplate.executeWithoutResult(
+                        status -> {
+                            borrowService.borrowBook(
+                                    new BorrowCreateDto(
+                                            Duration.ofDays(autoBorrowDurationDays), bookId, appUserId));
+                            notificationOutbox.add(
+                                    appUserId,
+                                    "Book '%s' has been borrowed for you from the queue for %d days"
+                                            .formatted(title, autoBorrowDurationDays));
+                        });
+                promoted++;
+            } catch (BorrowNotAllowedException e) {
+                transactionTemplate.executeWithoutResult(
+                        status -> {
+                            queueEntryRepository.deleteByAppUserIdAndBookId(appUserId, bookId);
+                            notificationOutbox.add(
+                                    appUserId,
+                                    "Book '%s' could not be borrowed for you from the queue: %s"
+                                            .formatted(title, e.getMessage()));
+                        });
+            } catch (ResourceConflictException e) {
+                // out of stock: a concurrent borrow took the copy first; the next return triggers
+                // another promotion
+                return promoted;
+            }
+        }
+    }
+
+    private Retry nextRetry(Instant now, int attempts) {
+        var backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        if (backoff.compareTo(maxRetryBackoff) > 0) {
+            backoff = maxRetryBackoff;
+        }
+        return new Retry(attempts, now.plus(backoff));
+    }
+
+    private boolean hasCopies(long bookId) {
+        return bookRepository.findCountById(bookId).orElse(0) > 0;
+    }
+
+    private record Retry(int attempts, Instant notBefore) {
+    }
+}
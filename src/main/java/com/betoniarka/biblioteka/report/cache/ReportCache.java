@@ -0,0 +1,129 @@
+package com.betoniarka.biblioteka.report.cache;
+
+import com.betoniarka.biblioteka.appuser.AppUserDeletedEvent;
+import com.betoniarka.biblioteka.book.BookCreatedEvent;
+import com.betoniarka.biblioteka.book.BookDeletedEvent;
+import com.betoniarka.biblioteka.book.BookUpdatedEvent;
+import com.betoniarka.biblioteka.book.BooksImportedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowCreatedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowReturnedEvent;
+import com.betoniarka.biblioteka.report.AfterCommit;
+import com.betoniarka.biblioteka.review.ReviewCreatedEvent;
+import com.betoniarka.biblioteka.review.ReviewDeletedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded stale-while-revalidate cache of report results.
+ *
+ * <p>A snapshot older than its report's TTL, or computed before the last relevant write, is still
+ * returned, while a single background refresh per key replaces it. Callers only block when there is
+ * no snapshot at all: on the first request for a key, or after {@code maxStale} without requests.
+ */
+@Slf4j
+@Component
+public class ReportCache {
+
+    private record Snapshot(Object value, Instant computedAt, long generation) {
+    }
+
+    private final ReportCacheProperties properties;
+    private final Clock clock;
+    private final Executor refreshExecutor;
+    private final Cache<ReportKey, Snapshot> snapshots;
+    private final Set<ReportKey> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ReportCache(
+            ReportCacheProperties properties,
+            Clock clock,
+            @Qualifier("reportRefreshExecutor") Executor refreshExecutor) {
+        this.properties = properties;
+        this.clock = clock;
+        this.refreshExecutor = refreshExecutor;
+        this.snapshots =
+                Caffeine.newBuilder()
+                        .maximumSize(properties.maximumSize())
+                        .expireAfterWrite(properties.maxStale())
+                        .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(ReportKey key, Supplier<T> loader) {
+        var snapshot = snapshots.getIfPresent(key);
+        if (snapshot == null) {
+            snapshot = snapshots.get(key, k -> compute(loader));
+        } else if (isStale(key, snapshot)) {
+            refreshInBackground(key, loader);
+        }
+        return (T) snapshot.value();
+    }
+
+    /** Marks every snapshot stale; the next request for each key triggers its refresh. */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+    }
+
+    @EventListener({
+            BorrowCreatedEvent.class,
+            BorrowReturnedEvent.class,
+            ReviewCreatedEvent.class,
+            ReviewDeletedEvent.class,
+            BookCreatedEvent.class,
+            BookUpdatedEvent.class,
+            BooksImportedEvent.class,
+            BookDeletedEvent.class,
+            AppUserDeletedEvent.class
+    })
+    public void onLibraryChanged() {
+        AfterCommit.run(this::invalidateAll);
+    }
+
+    private Snapshot compute(Supplier<?> loader) {
+        // read before computing, so a write committed meanwhile leaves the result stale
+        long computedGeneration = generation.get();
+        return new Snapshot(loader.get(), Instant.now(clock), computedGeneration);
+    }
+
+    private boolean isStale(ReportKey key, Snapshot snapshot) {
+        if (snapshot.generation() != generation.get()) {
+            return true;
+        }
+        Duration age = Duration.between(snapshot.computedAt(), Instant.now(clock));
+        return age.compareTo(properties.ttlOf(key.report())) >= 0;
+    }
+
+    private void refreshInBackground(ReportKey key, Supplier<?> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(
+                    () -> {
+                        try {
+                            snapshots.put(key, compute(loader));
+                        } catch (RuntimeException e) {
+                            log.warn("Refreshing report {} failed, keeping the stale snapshot.", key, e);
+                        } finally {
+                            refreshing.remove(key);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.betoniarka.biblioteka.report.cache;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(ReportCacheProperties.class)
+public class ReportCacheConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService reportRefreshExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
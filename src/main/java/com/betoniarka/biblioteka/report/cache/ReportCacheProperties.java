@@ -0,0 +1,25 @@
+package com.betoniarka.biblioteka.report.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @param maximumSize number of report snapshots kept, across all reports and parameters
+ * @param defaultTtl  age after which a snapshot is refreshed in the background
+ * @param maxStale    age after which a snapshot is dropped and the next request recomputes it
+ * @param ttl         per-report overrides of {@code defaultTtl}, keyed by {@link ReportKey#report()}
+ */
+@ConfigurationProperties("library.report.cache")
+public record ReportCacheProperties(
+        @DefaultValue("500") long maximumSize,
+        @DefaultValue("30s") Duration defaultTtl,
+        @DefaultValue("10m") Duration maxStale,
+        @DefaultValue Map<String, Duration> ttl) {
+
+    public Duration ttlOf(String report) {
+        return ttl.getOrDefault(report, defaultTtl);
+    }
+}
@@ -0,0 +1,16 @@
+package com.betoniarka.biblioteka.report.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Identifies a cached report: its name (also used to look up its TTL) and the request parameters.
+ * Parameters may be {@code null}, e.g. an open {@code from}/{@code to} period.
+ */
+public record ReportKey(String report, List<Object> parameters) {
+
+    public static ReportKey of(String report, Object... parameters) {
+        return new ReportKey(report, Collections.unmodifiableList(Arrays.asList(parameters)));
+    }
+}
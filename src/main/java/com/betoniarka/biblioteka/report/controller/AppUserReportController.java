@@ -1,10 +1,14 @@
 package com.betoniarka.biblioteka.report.controller;
 
+import com.betoniarka.biblioteka.report.cache.ReportCache;
+import com.betoniarka.biblioteka.report.cache.ReportKey;
 import com.betoniarka.biblioteka.report.dto.AppUserSummaryReportDto;
 import com.betoniarka.biblioteka.report.dto.AppUserWithOverdueDto;
 import com.betoniarka.biblioteka.report.dto.DeadAppUserAccountDto;
 import com.betoniarka.biblioteka.report.dto.MostActiveAppUserDto;
 import com.betoniarka.biblioteka.report.service.AppUserReportService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,30 +25,34 @@ import java.util.List;
 public class AppUserReportController {
 
     private final AppUserReportService service;
+    private final ReportCache reportCache;
 
     @GetMapping("/summary")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<AppUserSummaryReportDto> summary() {
-        return ResponseEntity.ok(service.getSummary());
+        return ResponseEntity.ok(reportCache.get(ReportKey.of("appuser-summary"), service::getSummary));
     }
 
     @GetMapping("/overdue")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<List<AppUserWithOverdueDto>> overdue() {
-        return ResponseEntity.ok(service.getOverdue());
+        return ResponseEntity.ok(reportCache.get(ReportKey.of("appuser-overdue"), service::getOverdue));
     }
 
     @GetMapping("/most-active")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<List<MostActiveAppUserDto>> mostActive(
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(service.getMostActive(limit));
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        return ResponseEntity.ok(
+                reportCache.get(
+                        ReportKey.of("appuser-most-active", limit), () -> service.getMostActive(limit)));
     }
 
     @GetMapping("/dead")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<List<DeadAppUserAccountDto>> dead(
-            @RequestParam(defaultValue = "100") int days) {
-        return ResponseEntity.ok(service.getDead(days));
+            @RequestParam(defaultValue = "100") @Min(1) @Max(3650) int days) {
+        return ResponseEntity.ok(
+                reportCache.get(ReportKey.of("appuser-dead", days), () -> service.getDead(days)));
     }
 }
@@ -1,10 +1,14 @@
 package com.betoniarka.biblioteka.report.controller;
 
+import com.betoniarka.biblioteka.report.cache.ReportCache;
+import com.betoniarka.biblioteka.report.cache.ReportKey;
 import com.betoniarka.biblioteka.report.dto.BookAvailabilityDto;
 import com.betoniarka.biblioteka.report.dto.BookSummaryReportDto;
 import com.betoniarka.biblioteka.report.dto.MostPopularBookCategoryDto;
 import com.betoniarka.biblioteka.report.dto.MostReviewedBookDto;
 import com.betoniarka.biblioteka.report.service.BookReportService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,30 +25,37 @@ import java.util.List;
 public class BookReportController {
 
     private final BookReportService service;
+    private final ReportCache reportCache;
 
     @GetMapping("/summary")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<BookSummaryReportDto> summary() {
-        return ResponseEntity.ok(service.getSummary());
+        return ResponseEntity.ok(reportCache.get(ReportKey.of("book-summary"), service::getSummary));
     }
 
     @GetMapping("/availability")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<List<BookAvailabilityDto>> availability() {
-        return ResponseEntity.ok(service.getAvailability());
+        return ResponseEntity.ok(
+                reportCache.get(ReportKey.of("book-availability"), service::getAvailability));
     }
 
     @GetMapping("/most-reviewed")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<List<MostReviewedBookDto>> mostReviewed(
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(service.getMostReviewed(limit));
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        return ResponseEntity.ok(
+                reportCache.get(
+                        ReportKey.of("book-most-reviewed", limit), () -> service.getMostReviewed(limit)));
     }
 
     @GetMapping("/most-popular-categories")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<List<MostPopularBookCategoryDto>> mostPopularBookCategories(
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(service.getMostPopularCategories(limit));
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        return ResponseEntity.ok(
+                reportCache.get(
+                        ReportKey.of("book-most-popular-categories", limit),
+                        () -> service.getMostPopularCategories(limit)));
     }
 }
@@ -1,8 +1,12 @@
 package com.betoniarka.biblioteka.report.controller;
 
+import com.betoniarka.biblioteka.report.cache.ReportCache;
+import com.betoniarka.biblioteka.report.cache.ReportKey;
 import com.betoniarka.biblioteka.report.dto.BorrowSummaryReportDto;
 import com.betoniarka.biblioteka.report.dto.MostBorrowedBookDto;
 import com.betoniarka.biblioteka.report.service.BorrowReportService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,19 +24,23 @@ import java.util.List;
 public class BorrowReportController {
 
     private final BorrowReportService service;
+    private final ReportCache reportCache;
 
     @GetMapping("/summary")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<BorrowSummaryReportDto> summary() {
-        return ResponseEntity.ok(service.getSummary());
+        return ResponseEntity.ok(reportCache.get(ReportKey.of("borrow-summary"), service::getSummary));
     }
 
     @GetMapping("/most-borrowed")
     @PreAuthorize("hasAnyRole('ADMIN', 'EMPLOYEE')")
     public ResponseEntity<List<MostBorrowedBookDto>> mostBorrowed(
-            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit,
             @RequestParam(required = false) Instant from,
             @RequestParam(required = false) Instant to) {
-        return ResponseEntity.ok(service.getMostBorrowed(limit, from, to));
+        return ResponseEntity.ok(
+                reportCache.get(
+                        ReportKey.of("borrow-most-borrowed", limit, from, to),
+                        () -> service.getMostBorrowed(limit, from, to)));
     }
 }
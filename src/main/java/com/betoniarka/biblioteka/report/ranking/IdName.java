@@ -0,0 +1,4 @@
+package com.betoniarka.biblioteka.report.ranking;
+
+public record IdName(Long id, String name) {
+}
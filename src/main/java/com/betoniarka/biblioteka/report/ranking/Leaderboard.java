@@ -0,0 +1,105 @@
+package com.betoniarka.biblioteka.report.ranking;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory score per id, updated incrementally and ranked with {@link TopK}.
+ *
+ * <p>Only positive scores take part in a ranking. A board starts out stale and is reloaded from the
+ * database by {@link RankingService} before its next read.
+ *
+ * <p>A reload cannot tell whether a transaction that commits while the recount runs is part of it,
+ * so every writing transaction is announced with {@link #begin} before it commits and {@link #end}
+ * after it completes. A recount is only trusted if no transaction was in flight and nothing else
+ * changed the board while it ran. Otherwise it is still installed, as fresh as a direct aggregate
+ * query would be, but the board stays stale and the next read recounts it once more. Readers that
+ * wait for a reload in progress take its result instead of running their own.
+ */
+public class Leaderboard {
+
+    private final ConcurrentHashMap<Long, LongAdder> scores = new ConcurrentHashMap<>();
+    /** Held shared by {@link #add} and {@link #top}, exclusively while a recount is installed. */
+    private final ReadWriteLock installLock = new ReentrantReadWriteLock();
+    /** Bumped by every {@link #begin}, {@link #add} and {@link #invalidate}. */
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /** Bumped by every installed recount. */
+    private final AtomicLong reloads = new AtomicLong();
+    private volatile boolean stale = true;
+
+    /** Announces a transaction that will {@link #add} to this board if it commits. */
+    public void begin() {
+        changes.incrementAndGet();
+        inFlight.incrementAndGet();
+    }
+
+    /** Called once the transaction announced with {@link #begin} has committed or rolled back. */
+    public void end() {
+        inFlight.decrementAndGet();
+    }
+
+    public void add(long id, long delta) {
+        installLock.readLock().lock();
+        try {
+            scores.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+            changes.incrementAndGet();
+        } finally {
+            installLock.readLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        stale = true;
+        changes.incrementAndGet();
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void reload(Supplier<List<RankedId>> recount) {
+        long requested = reloads.get();
+        synchronized (this) {
+            if (reloads.get() != requested) {
+                return;
+            }
+            long seen = changes.get();
+            boolean quiet = inFlight.get() == 0;
+            var rows = recount.get();
+
+            installLock.writeLock().lock();
+            try {
+                scores.clear();
+                rows.forEach(row -> scores.computeIfAbsent(row.id(), key -> new LongAdder()).add(row.score()));
+                stale = !(quiet && changes.get() == seen);
+                reloads.incrementAndGet();
+            } finally {
+                installLock.writeLock().unlock();
+            }
+        }
+    }
+
+    public List<RankedId> top(int k) {
+        installLock.readLock().lock();
+        try {
+            var topK = new TopK(Math.min(k, scores.size()));
+            scores.forEach(
+                    (id, score) -> {
+                        long value = score.sum();
+                        if (value > 0) {
+                            topK.offer(id, value);
+                        }
+                    });
+            return topK.result();
+        } finally {
+            installLock.readLock().unlock();
+        }
+    }
+}
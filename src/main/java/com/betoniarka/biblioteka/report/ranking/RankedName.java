@@ -0,0 +1,4 @@
+package com.betoniarka.biblioteka.report.ranking;
+
+public record RankedName(long id, String name, long score) {
+}
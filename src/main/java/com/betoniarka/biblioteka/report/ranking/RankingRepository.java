@@ -0,0 +1,62 @@
+package com.betoniarka.biblioteka.report.ranking;
+
+import com.betoniarka.biblioteka.book.Book;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/** Full recounts used to (re)load the {@link Leaderboard}s and name lookups for ranked ids. */
+public interface RankingRepository extends Repository<Book, Long> {
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.ranking.RankedId(b.book.id, count(b))
+                    from Borrow b
+                    group by b.book.id""")
+    List<RankedId> countBorrowsPerBook();
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.ranking.RankedId(r.book.id, count(r))
+                    from Review r
+                    group by r.book.id""")
+    List<RankedId> countReviewsPerBook();
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.ranking.RankedId(b.appUser.id, count(b))
+                    from Borrow b
+                    group by b.appUser.id""")
+    List<RankedId> countBorrowsPerAppUser();
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.ranking.RankedId(c.id, count(b))
+                    from Borrow b join b.book bk join bk.categories c
+                    group by c.id""")
+    List<RankedId> countBorrowsPerCategory();
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.ranking.IdName(b.id, b.title)
+                    from Book b
+                    where b.id in :ids""")
+    List<IdName> findBookTitles(@Param("ids") Collection<Long> ids);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.ranking.IdName(u.id, u.username)
+                    from AppUser u
+                    where u.id in :ids""")
+    List<IdName> findAppUserNames(@Param("ids") Collection<Long> ids);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.ranking.IdName(c.id, c.name)
+                    from Category c
+                    where c.id in :ids""")
+    List<IdName> findCategoryNames(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,187 @@
+package com.betoniarka.biblioteka.report.ranking;
+
+import com.betoniarka.biblioteka.appuser.AppUserDeletedEvent;
+import com.betoniarka.biblioteka.book.BookDeletedEvent;
+import com.betoniarka.biblioteka.book.BookUpdatedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowCreatedEvent;
+import com.betoniarka.biblioteka.category.Category;
+import com.betoniarka.biblioteka.report.AfterCommit;
+import com.betoniarka.biblioteka.review.ReviewCreatedEvent;
+import com.betoniarka.biblioteka.review.ReviewDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Incrementally maintained rankings behind the "most ..." reports.
+ *
+ * <p>Events are received inside the publishing transaction, but boards only change once it
+ * commits, so a rolled back borrow or review never shows up in a ranking. Deletes and category
+ * changes touch many scores at once and simply mark the affected boards stale.
+ */
+@Service
+@RequiredArgsConstructor
+public class RankingService {
+
+    private final RankingRepository repository;
+
+    private final Leaderboard borrowsPerBook = new Leaderboard();
+    private final Leaderboard reviewsPerBook = new Leaderboard();
+    private final Leaderboard borrowsPerAppUser = new Leaderboard();
+    private final Leaderboard borrowsPerCategory = new Leaderboard();
+
+    /**
+     * Returns up to {@code limit} books with the most borrows. Fewer rows mean that fewer books have
+     * been borrowed at all.
+     */
+    public List<RankedName> mostBorrowedBooks(int limit) {
+        return rank(borrowsPerBook, repository::countBorrowsPerBook, limit, repository::findBookTitles);
+    }
+
+    /** Returns up to {@code limit} books with the most reviews, skipping books without any. */
+    public List<RankedName> mostReviewedBooks(int limit) {
+        return rank(reviewsPerBook, repository::countReviewsPerBook, limit, repository::findBookTitles);
+    }
+
+    /** Returns up to {@code limit} users with the most borrows, skipping users without any. */
+    public List<RankedName> mostActiveAppUsers(int limit) {
+        return rank(
+                borrowsPerAppUser, repository::countBorrowsPerAppUser, limit, repository::findAppUserNames);
+    }
+
+    /** Returns up to {@code limit} categories whose books were borrowed most often. */
+    public List<RankedName> mostPopularCategories(int limit) {
+        return rank(
+                borrowsPerCategory,
+                repository::countBorrowsPerCategory,
+                limit,
+                repository::findCategoryNames);
+    }
+
+    @EventListener
+    public void onBorrowCreated(BorrowCreatedEvent event) {
+        var borrow = event.borrow();
+        long bookId = borrow.getBook().getId();
+        long appUserId = borrow.getAppUser().getId();
+        List<Long> categoryIds =
+                borrow.getBook().getCategories().stream().map(Category::getId).toList();
+
+        onCommit(
+                List.of(borrowsPerBook, borrowsPerAppUser, borrowsPerCategory),
+                () -> {
+                    borrowsPerBook.add(bookId, 1);
+                    borrowsPerAppUser.add(appUserId, 1);
+                    categoryIds.forEach(categoryId -> borrowsPerCategory.add(categoryId, 1));
+                });
+    }
+
+    @EventListener
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        long bookId = event.review().getBook().getId();
+        onCommit(List.of(reviewsPerBook), () -> reviewsPerBook.add(bookId, 1));
+    }
+
+    @EventListener
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        long bookId = event.review().getBook().getId();
+        onCommit(List.of(reviewsPerBook), () -> reviewsPerBook.add(bookId, -1));
+    }
+
+    @EventListener
+    public void onBookUpdated(BookUpdatedEvent event) {
+        AfterCommit.run(borrowsPerCategory::invalidate);
+    }
+
+    @EventListener
+    public void onBookDeleted(BookDeletedEvent event) {
+        AfterCommit.run(this::invalidateAll);
+    }
+
+    @EventListener
+    public void onAppUserDeleted(AppUserDeletedEvent event) {
+        AfterCommit.run(this::invalidateAll);
+    }
+
+    /** Drops every board so the next read recounts it; also runs on the statistics reconcile schedule. */
+    @Scheduled(cron = "${library.statistics.reconcileCron:0 0 3 * * *}")
+    public void invalidateAll() {
+        borrowsPerBook.invalidate();
+        reviewsPerBook.invalidate();
+        borrowsPerAppUser.invalidate();
+        borrowsPerCategory.invalidate();
+    }
+
+    /**
+     * Applies {@code deltas} once the current transaction commits, keeping {@code boards} informed that
+     * it is in flight until it completes (see {@link Leaderboard#begin}). Runs immediately outside a
+     * transaction.
+     */
+    private static void onCommit(List<Leaderboard> boards, Runnable deltas) {
+        boards.forEach(Leaderboard::begin);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                deltas.run();
+            } finally {
+                boards.forEach(Leaderboard::end);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        deltas.run();
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        boards.forEach(Leaderboard::end);
+                    }
+                });
+    }
+
+    private List<RankedName> rank(
+            Leaderboard board,
+            Supplier<List<RankedId>> recount,
+            int limit,
+            Function<Collection<Long>, List<IdName>> names) {
+        if (board.isStale()) {
+            board.reload(recount);
+        }
+
+        List<RankedId> top = board.top(limit);
+        List<RankedName> ranked = withNames(top, names);
+        if (ranked.size() < top.size()) {
+            // an id was removed behind the board's back, e.g. a deleted category
+            board.reload(recount);
+            ranked = withNames(board.top(limit), names);
+        }
+        return ranked;
+    }
+
+    private static List<RankedName> withNames(
+            List<RankedId> top, Function<Collection<Long>, List<IdName>> names) {
+        if (top.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, String> nameById =
+                names.apply(top.stream().map(RankedId::id).toList()).stream()
+                        .collect(Collectors.toMap(IdName::id, IdName::name));
+
+        return top.stream()
+                .filter(ranked -> nameById.containsKey(ranked.id()))
+                .map(ranked -> new RankedName(ranked.id(), nameById.get(ranked.id()), ranked.score()))
+                .toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.betoniarka.biblioteka.report.ranking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bounded selection of the {@code k} best {@code (id, score)} pairs.
+ *
+ * <p>Entries are kept in a min-heap on primitive arrays with the worst retained entry at the root,
+ * so {@code n} offers cost {@code O(n log k)} and allocate nothing. Higher scores rank first, ties
+ * go to the lower id, matching {@code order by score desc, id}.
+ *
+ * <p>Not thread-safe; create one per ranking.
+ */
+public final class TopK {
+
+    private static final Comparator<RankedId> RANKING =
+            Comparator.comparingLong(RankedId::score).reversed().thenComparingLong(RankedId::id);
+
+    private final long[] ids;
+    private final long[] scores;
+    private int size;
+
+    public TopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative, got %d".formatted(k));
+        }
+        this.ids = new long[k];
+        this.scores = new long[k];
+    }
+
+    public void offer(long id, long score) {
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (size > 0 && ranksBefore(id, score, ids[0], scores[0])) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /** Returns the retained entries, best first. */
+    public List<RankedId> result() {
+        var result = new ArrayList<RankedId>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new RankedId(ids[i], scores[i]));
+        }
+        result.sort(RANKING);
+        return result;
+    }
+
+    private static boolean ranksBefore(long id, long score, long otherId, long otherScore) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+
+    private boolean worse(int i, int j) {
+        return ranksBefore(ids[j], scores[j], ids[i], scores[i]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!worse(i, parent)) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            int right = left + 1;
+            int worst = i;
+            if (left < size && worse(left, worst)) worst = left;
+            if (right < size && worse(right, worst)) worst = right;
+            if (worst == i) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        long score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+}
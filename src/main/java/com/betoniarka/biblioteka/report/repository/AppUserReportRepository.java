@@ -0,0 +1,83 @@
+package com.betoniarka.biblioteka.report.repository;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.report.dto.MostActiveAppUserDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Aggregate queries backing {@link com.betoniarka.biblioteka.report.service.AppUserReportService}.
+ */
+public interface AppUserReportRepository extends Repository<AppUser, Long> {
+
+    @Query("select count(u) from AppUser u")
+    long countAppUsers();
+
+    @Query("select count(b) from Borrow b")
+    long countBorrows();
+
+    @Query("select count(u) from AppUser u where u.activeBorrowCount > 0")
+    long countAppUsersWithCurrentBorrows();
+
+    @Query(
+            """
+                    select count(distinct b.appUser.id)
+                    from Borrow b
+                    where b.returnedAt is null and b.borrowedAt + b.borrowDuration < :now""")
+    long countAppUsersWithOverdue(@Param("now") Instant now);
+
+    /** Sums the whole days each returned borrow was overdue, like the report always has. */
+    @Query(
+            """
+                    select coalesce(sum(
+                        ((b.returnedAt - (b.borrowedAt + b.borrowDuration)) by second) / 86400), 0)
+                    from Borrow b
+                    where b.returnedAt > b.borrowedAt + b.borrowDuration""")
+    long sumOverdueDaysOfReturnedBorrows();
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.repository.OverdueBorrowRow(
+                        b.id, u.id, u.username, bk.id, b.borrowedAt + b.borrowDuration)
+                    from Borrow b join b.appUser u join b.book bk
+                    where b.returnedAt is null and b.borrowedAt + b.borrowDuration < :now
+                    order by b.id""")
+    List<OverdueBorrowRow> findOverdueBorrows(@Param("now") Instant now);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.dto.MostActiveAppUserDto(
+                        u.id, u.username, count(b))
+                    from AppUser u left join u.borrows b
+                    group by u.id, u.username
+                    order by count(b) desc, u.id""")
+    List<MostActiveAppUserDto> findMostActive(Limit limit);
+
+    /**
+     * Finds users whose every borrow is returned and whose latest return happened at or before the
+     * given threshold.
+     */
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.repository.LastReturnRow(
+                        u.id, u.username, max(b.returnedAt))
+                    from Borrow b join b.appUser u
+                    group by u.id, u.username
+                    having count(case when b.returnedAt is null then 1 end) = 0
+                        and max(b.returnedAt) <= :threshold
+                    order by u.id""")
+    List<LastReturnRow> findInactiveSince(@Param("threshold") Instant threshold);
+
+    @Query(
+            """
+                    select count(u)
+                    from AppUser u
+                    where u.activeBorrowCount = 0
+                        and (select max(b.returnedAt) from Borrow b where b.appUser = u) <= :threshold""")
+    long countInactiveSince(@Param("threshold") Instant threshold);
+}
@@ -0,0 +1,39 @@
+package com.betoniarka.biblioteka.report.repository;
+
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.report.dto.BookAvailabilityDto;
+import com.betoniarka.biblioteka.report.dto.MostReviewedBookDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+/**
+ * Aggregate queries backing {@link com.betoniarka.biblioteka.report.service.BookReportService}.
+ *
+ * <p>Every method is answered by a single SQL statement, so no entity or lazy collection is loaded
+ * into the persistence context. Summary totals live in {@link
+ * com.betoniarka.biblioteka.statistics.LibraryStatistics}, rankings in {@link
+ * com.betoniarka.biblioteka.report.ranking.RankingService}.
+ */
+public interface BookReportRepository extends Repository<Book, Long> {
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.dto.BookAvailabilityDto(
+                        b.id, b.title, cast(b.count as Long))
+                    from Book b
+                    where b.count > 0
+                    order by b.id""")
+    List<BookAvailabilityDto> findAvailable();
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.dto.MostReviewedBookDto(
+                        b.id, b.title, count(r))
+                    from Book b left join b.reviews r
+                    group by b.id, b.title
+                    order by count(r) desc, b.id""")
+    List<MostReviewedBookDto> findMostReviewed(Limit limit);
+}
@@ -0,0 +1,43 @@
+package com.betoniarka.biblioteka.report.repository;
+
+import com.betoniarka.biblioteka.borrow.Borrow;
+import com.betoniarka.biblioteka.report.dto.MostBorrowedBookDto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Aggregate queries backing {@link com.betoniarka.biblioteka.report.service.BorrowReportService}.
+ *
+ * <p>Windowed queries sum {@link com.betoniarka.biblioteka.statistics.BorrowDailyRollup} buckets,
+ * so their bounds are whole UTC days, both inclusive. The all-time ranking is served by {@link
+ * com.betoniarka.biblioteka.report.ranking.RankingService}.
+ */
+public interface BorrowReportRepository extends Repository<Borrow, Long> {
+
+    @Query("select count(u) from AppUser u")
+    long countAppUsers();
+
+    @Query(
+            """
+                    select coalesce(sum(r.started), 0)
+                    from BorrowDailyRollup r
+                    where r.id.bucketDate >= :since""")
+    long countBorrowedSince(@Param("since") LocalDate since);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.report.dto.MostBorrowedBookDto(
+                        bk.id, bk.title, sum(r.started))
+                    from BorrowDailyRollup r join Book bk on bk.id = r.id.bookId
+                    where r.id.bucketDate >= :from and r.id.bucketDate <= :to
+                    group by bk.id, bk.title
+                    having sum(r.started) > 0
+                    order by sum(r.started) desc, bk.id""")
+    List<MostBorrowedBookDto> findMostBorrowedBetween(
+            @Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+}
@@ -0,0 +1,6 @@
+package com.betoniarka.biblioteka.report.repository;
+
+import java.time.Instant;
+
+public record LastReturnRow(Long userId, String username, Instant lastReturnedAt) {
+}
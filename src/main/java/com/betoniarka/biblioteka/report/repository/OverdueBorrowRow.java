@@ -0,0 +1,7 @@
+package com.betoniarka.biblioteka.report.repository;
+
+import java.time.Instant;
+
+public record OverdueBorrowRow(
+        Long borrowId, Long userId, String username, Long bookId, Instant dueAt) {
+}
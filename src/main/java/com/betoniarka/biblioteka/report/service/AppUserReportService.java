@@ -1,21 +1,19 @@
 package com.betoniarka.biblioteka.report.service;
 
-import com.betoniarka.biblioteka.appuser.AppUser;
-import com.betoniarka.biblioteka.appuser.AppUserRepository;
-import com.betoniarka.biblioteka.borrow.Borrow;
-import com.betoniarka.biblioteka.borrow.BorrowRepository;
 import com.betoniarka.biblioteka.report.dto.AppUserSummaryReportDto;
 import com.betoniarka.biblioteka.report.dto.AppUserWithOverdueDto;
 import com.betoniarka.biblioteka.report.dto.DeadAppUserAccountDto;
 import com.betoniarka.biblioteka.report.dto.MostActiveAppUserDto;
+import com.betoniarka.biblioteka.report.ranking.RankingService;
+import com.betoniarka.biblioteka.report.repository.AppUserReportRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -23,58 +21,36 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class AppUserReportService {
 
-    private final AppUserRepository userRepository;
-    private final BorrowRepository borrowRepository;
+    private final AppUserReportRepository reportRepository;
+    private final RankingService rankingService;
     private final Clock clock;
 
     public AppUserSummaryReportDto getSummary() {
 
-        var appUsersList = userRepository.findAll().stream().toList();
+        Instant now = Instant.now(clock);
 
-        long totalAppUsers = appUsersList.size();
+        long totalAppUsers = reportRepository.countAppUsers();
 
-        long totalAppUsersWithBorrows =
-                appUsersList.stream().filter(user -> !user.getCurrentBorrows().isEmpty()).count();
+        long totalAppUsersWithBorrows = reportRepository.countAppUsersWithCurrentBorrows();
 
         long totalAppUsersWithoutBorrows = totalAppUsers - totalAppUsersWithBorrows;
 
-        long totalAppUsersWithOverdue =
-                appUsersList.stream()
-                        .filter(
-                                user -> {
-                                    for (Borrow borrow : user.getCurrentBorrows()) {
-                                        if (borrow
-                                                .getBorrowedAt()
-                                                .plus(borrow.getBorrowDuration())
-                                                .isBefore(Instant.now(clock))) return true;
-                                    }
-                                    return false;
-                                })
-                        .count();
-
-        long totalBorrows = borrowRepository.count();
+        long totalAppUsersWithOverdue = reportRepository.countAppUsersWithOverdue(now);
+
+        long totalBorrows = reportRepository.countBorrows();
         long averageBorrowsPerAppUser = totalAppUsers == 0 ? 0 : totalBorrows / totalAppUsers;
 
-        long totalOverdueDays =
-                borrowRepository.findAll().stream()
-                        .filter(Borrow::isReturned)
-                        .mapToLong(
-                                borrow -> {
-                                    Instant returnedTime = borrow.getReturnedAt();
-                                    Instant expectedReturnTime =
-                                            borrow.getBorrowedAt().plus(borrow.getBorrowDuration());
-                                    Duration duration = Duration.between(expectedReturnTime, returnedTime);
-                                    return duration.isNegative() ? 0 : duration.toDays();
-                                })
-                        .sum();
+        long totalOverdueDays = reportRepository.sumOverdueDaysOfReturnedBorrows();
 
         long averageOverdueDaysPerAppUser = totalAppUsers == 0 ? 0 : totalOverdueDays / totalAppUsers;
 
-        long activeAppUsersLastWeek = totalAppUsers - getDead(7).size();
+        long activeAppUsersLastWeek =
+                totalAppUsers - reportRepository.countInactiveSince(now.minus(Duration.ofDays(7)));
         double activityProportionLastWeek =
                 totalAppUsers == 0 ? 0 : ((double) activeAppUsersLastWeek / totalAppUsers);
 
-        long activeAppUsersLastMonth = totalAppUsers - getDead(31).size();
+        long activeAppUsersLastMonth =
+                totalAppUsers - reportRepository.countInactiveSince(now.minus(Duration.ofDays(31)));
         double activityProportionLastMonth =
                 totalAppUsers == 0 ? 0 : ((double) activeAppUsersLastMonth / totalAppUsers);
 
@@ -93,59 +69,43 @@ public class AppUserReportService {
 
     public List<AppUserWithOverdueDto> getOverdue() {
         Instant now = Instant.now(clock);
-        return borrowRepository.findAll().stream()
-                .filter(
-                        borrow ->
-                                !borrow.isReturned()
-                                        && Duration.between(
-                                                now, borrow.getBorrowedAt().plus(borrow.getBorrowDuration()))
-                                        .isNegative())
+        return reportRepository.findOverdueBorrows(now).stream()
                 .map(
-                        borrow ->
+                        row ->
                                 new AppUserWithOverdueDto(
-                                        borrow.getAppUser().getId(),
-                                        borrow.getAppUser().getUsername(),
-                                        borrow.getBook().getId(),
-                                        borrow.getId(),
-                                        Math.abs(
-                                                Duration.between(
-                                                                now, borrow.getBorrowedAt().plus(borrow.getBorrowDuration()))
-                                                        .toDays())))
+                                        row.userId(),
+                                        row.username(),
+                                        row.bookId(),
+                                        row.borrowId(),
+                                        Math.abs(Duration.between(now, row.dueAt()).toDays())))
                 .toList();
     }
 
+    /**
+     * Users without borrows are ranked too, so the database is only asked when fewer than {@code
+     * limit} users have borrowed anything.
+     */
     public List<MostActiveAppUserDto> getMostActive(int limit) {
 
-        return userRepository.findAll().stream()
-                .sorted(Comparator.comparingLong((AppUser user) -> user.getBorrows().size()).reversed())
-                .limit(limit)
-                .map(
-                        user ->
-                                new MostActiveAppUserDto(
-                                        user.getId(), user.getUsername(), user.getBorrows().size()))
+        var ranked = rankingService.mostActiveAppUsers(limit);
+        if (ranked.size() < limit) {
+            return reportRepository.findMostActive(Limit.of(limit));
+        }
+        return ranked.stream()
+                .map(appUser -> new MostActiveAppUserDto(appUser.id(), appUser.name(), appUser.score()))
                 .toList();
     }
 
     public List<DeadAppUserAccountDto> getDead(long days) {
 
-        return userRepository.findAll().stream()
-                .filter(
-                        user ->
-                                !user.getBorrows().isEmpty()
-                                        && user.getCurrentBorrows().isEmpty()
-                                        && Duration.between(
-                                                user.getBorrows().getLast().getReturnedAt(), Instant.now(clock))
-                                        .toDays()
-                                        >= days)
+        Instant now = Instant.now(clock);
+        return reportRepository.findInactiveSince(now.minus(Duration.ofDays(days))).stream()
                 .map(
-                        user ->
+                        row ->
                                 new DeadAppUserAccountDto(
-                                        user.getId(),
-                                        user.getUsername(),
-                                        Math.abs(
-                                                Duration.between(
-                                                                user.getBorrows().getLast().getReturnedAt(), Instant.now(clock))
-                                                        .toDays())))
+                                        row.userId(),
+                                        row.username(),
+                                        Math.abs(Duration.between(row.lastReturnedAt(), now).toDays())))
                 .toList();
     }
 }
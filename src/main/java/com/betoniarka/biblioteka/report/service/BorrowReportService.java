@@ -1,61 +1,50 @@
 package com.betoniarka.biblioteka.report.service;
 
-import com.betoniarka.biblioteka.appuser.AppUserRepository;
-import com.betoniarka.biblioteka.book.Book;
-import com.betoniarka.biblioteka.borrow.Borrow;
-import com.betoniarka.biblioteka.borrow.BorrowRepository;
 import com.betoniarka.biblioteka.report.dto.BorrowSummaryReportDto;
 import com.betoniarka.biblioteka.report.dto.MostBorrowedBookDto;
+import com.betoniarka.biblioteka.report.ranking.RankingService;
+import com.betoniarka.biblioteka.report.repository.BorrowReportRepository;
+import com.betoniarka.biblioteka.statistics.BorrowRollupService;
+import com.betoniarka.biblioteka.statistics.LibraryStatisticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
+import java.time.Clock;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BorrowReportService {
 
-    private final AppUserRepository userRepository;
-    private final BorrowRepository borrowRepository;
+    private final BorrowReportRepository reportRepository;
+    private final LibraryStatisticsService statisticsService;
+    private final RankingService rankingService;
+    private final Clock clock;
 
     public BorrowSummaryReportDto getSummary() {
 
-        var borrowList = borrowRepository.findAll().stream().toList();
+        Instant now = Instant.now(clock);
+        var statistics = statisticsService.current();
 
-        long totalBorrows = borrowList.size();
-        long currentBorrows = borrowList.stream().filter(borrow -> !borrow.isReturned()).count();
+        long totalBorrows = statistics.totalBorrows();
+        long currentBorrows = statistics.currentBorrows();
 
-        long totalBorrowDurationDays =
-                borrowList.stream()
-                        .filter(Borrow::isReturned)
-                        .mapToLong(
-                                borrow -> Duration.between(borrow.getBorrowedAt(), borrow.getReturnedAt()).toDays())
-                        .sum();
+        long totalBorrowDurationDays = statistics.returnedBorrowDays();
 
-        long totalAppUsers = userRepository.count();
+        long totalAppUsers = reportRepository.countAppUsers();
         long averageBorrowDurationDays =
                 totalAppUsers == 0 ? 0 : totalBorrowDurationDays / totalAppUsers;
 
-        long borrowsLastWeek =
-                borrowList.stream()
-                        .filter(borrow -> Duration.between(borrow.getBorrowedAt(), Instant.now()).toDays() <= 7)
-                        .count();
-        long borrowsLastMonth =
-                borrowList.stream()
-                        .filter(
-                                borrow -> Duration.between(borrow.getBorrowedAt(), Instant.now()).toDays() <= 31)
-                        .count();
-        long borrowsLastYear =
-                borrowList.stream()
-                        .filter(
-                                borrow -> Duration.between(borrow.getBorrowedAt(), Instant.now()).toDays() <= 365)
-                        .count();
+        // Whole UTC days from today - N through today, not the last N * 24 hours
+        LocalDate today = BorrowRollupService.bucketOf(now);
+        long borrowsLastWeek = reportRepository.countBorrowedSince(today.minusDays(7));
+        long borrowsLastMonth = reportRepository.countBorrowedSince(today.minusDays(31));
+        long borrowsLastYear = reportRepository.countBorrowedSince(today.minusDays(365));
 
         return new BorrowSummaryReportDto(
                 totalBorrows,
@@ -70,23 +59,13 @@ public class BorrowReportService {
 
         boolean timePeriodNotSpecified = (from == null || to == null);
 
-        var bookBorrowCountMap =
-                borrowRepository.findAll().stream()
-                        .filter(
-                                borrow ->
-                                        timePeriodNotSpecified
-                                                || (borrow.getBorrowedAt().isAfter(from)
-                                                && borrow.getBorrowedAt().isBefore(to)))
-                        .map(Borrow::getBook)
-                        .collect(Collectors.groupingBy(book -> book, Collectors.counting()));
+        if (timePeriodNotSpecified) {
+            return rankingService.mostBorrowedBooks(limit).stream()
+                    .map(book -> new MostBorrowedBookDto(book.id(), book.name(), book.score()))
+                    .toList();
+        }
 
-        return bookBorrowCountMap.entrySet().stream()
-                .sorted(Map.Entry.<Book, Long>comparingByValue().reversed())
-                .limit(limit)
-                .map(
-                        entry ->
-                                new MostBorrowedBookDto(
-                                        entry.getKey().getId(), entry.getKey().getTitle(), entry.getValue()))
-                .toList();
+        return reportRepository.findMostBorrowedBetween(
+                BorrowRollupService.bucketOf(from), BorrowRollupService.bucketOf(to), Limit.of(limit));
     }
 }
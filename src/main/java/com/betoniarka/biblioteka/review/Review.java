@@ -10,7 +10,12 @@ import lombok.Setter;
 import java.util.Objects;
 
 @Entity
-@Table(name = "review")
+@Table(
+        name = "review",
+        indexes = {
+                @Index(name = "idx_review_book", columnList = "book_id"),
+                @Index(name = "idx_review_app_user", columnList = "app_user_id")
+        })
 public class Review {
 
     @Getter
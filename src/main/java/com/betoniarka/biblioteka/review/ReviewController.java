@@ -1,17 +1,20 @@
 package com.betoniarka.biblioteka.review;
 
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
 import com.betoniarka.biblioteka.review.dto.ReviewCreateDto;
 import com.betoniarka.biblioteka.review.dto.ReviewResponseDto;
 import com.betoniarka.biblioteka.review.dto.ReviewUpdateDto;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 
 @RestController
 @RequestMapping(path = "review")
@@ -21,9 +24,14 @@ public class ReviewController {
     private final ReviewService service;
 
     @GetMapping
-    public ResponseEntity<List<ReviewResponseDto>> getReviews() {
-
-        return ResponseEntity.ok(service.getReviews());
+    public ResponseEntity<PageResponse<ReviewResponseDto>> getReviews(
+            @RequestParam(required = false) Long after,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+
+        return ResponseEntity.ok(
+                after == null
+                        ? service.getReviews(pageable)
+                        : service.getReviewsAfter(new Keyset(after, pageable.getPageSize())));
     }
 
     @GetMapping("/{id}")
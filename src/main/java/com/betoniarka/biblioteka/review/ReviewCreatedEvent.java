@@ -0,0 +1,8 @@
+package com.betoniarka.biblioteka.review;
+
+/**
+ * Published by {@link ReviewService} after a review has been persisted, inside the same
+ * transaction.
+ */
+public record ReviewCreatedEvent(Review review) {
+}
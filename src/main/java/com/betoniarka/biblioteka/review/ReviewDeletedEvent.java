@@ -0,0 +1,8 @@
+package com.betoniarka.biblioteka.review;
+
+/**
+ * Published by {@link ReviewService} right before a review is deleted, inside the same
+ * transaction.
+ */
+public record ReviewDeletedEvent(Review review) {
+}
@@ -1,8 +1,51 @@
 package com.betoniarka.biblioteka.review;
 
+import com.betoniarka.biblioteka.pagination.KeysetRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, KeysetRepository<Review> {
+
+    // Read endpoints; review.app_user_id and review.book_id are nullable, hence the left joins
+
+    @Query(
+            value =
+                    """
+                            select new com.betoniarka.biblioteka.review.ReviewRow(
+                                r.id, r.rating, r.comment,
+                                u.id, u.username, u.firstname, u.lastname, u.email, u.role,
+                                b.id, b.title, b.count, a.id)
+                            from Review r left join r.appUser u left join r.book b left join b.author a""",
+            countQuery = "select count(r) from Review r")
+    Page<ReviewRow> findRows(Pageable pageable);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.review.ReviewRow(
+                        r.id, r.rating, r.comment,
+                        u.id, u.username, u.firstname, u.lastname, u.email, u.role,
+                        b.id, b.title, b.count, a.id)
+                    from Review r left join r.appUser u left join r.book b left join b.author a
+                    where r.id > :id
+                    order by r.id""")
+    List<ReviewRow> findRowsByIdGreaterThan(@Param("id") long id, Limit limit);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.review.ReviewRow(
+                        r.id, r.rating, r.comment,
+                        u.id, u.username, u.firstname, u.lastname, u.email, u.role,
+                        b.id, b.title, b.count, a.id)
+                    from Review r left join r.appUser u left join r.book b left join b.author a
+                    where r.id = :id""")
+    Optional<ReviewRow> findRowById(@Param("id") long id);
 }
@@ -0,0 +1,38 @@
+package com.betoniarka.biblioteka.review;
+
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.appuser.dto.AppUserResponseDto;
+import com.betoniarka.biblioteka.book.dto.BookResponseDto;
+import com.betoniarka.biblioteka.review.dto.ReviewResponseDto;
+
+/**
+ * A review joined with its user and book in one flat row, since a JPQL constructor expression cannot
+ * build the nested {@link ReviewResponseDto} itself. The user and book columns are {@code null}
+ * when the review has no user or book, like the mapped entity.
+ */
+public record ReviewRow(
+        long id,
+        int rating,
+        String comment,
+        Long appUserId,
+        String username,
+        String firstname,
+        String lastname,
+        String email,
+        AppUserRole role,
+        Long bookId,
+        String title,
+        Integer count,
+        Long authorId) {
+
+    public ReviewResponseDto toDto() {
+        return new ReviewResponseDto(
+                id,
+                rating,
+                comment,
+                appUserId == null
+                        ? null
+                        : new AppUserResponseDto(appUserId, username, firstname, lastname, email, role),
+                bookId == null ? null : new BookResponseDto(bookId, title, count, authorId));
+    }
+}
@@ -6,33 +6,52 @@ import com.betoniarka.biblioteka.book.Book;
 import com.betoniarka.biblioteka.book.BookRepository;
 import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
 import com.betoniarka.biblioteka.exceptions.ResourceNotFoundException;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.pagination.PageResponse;
+import com.betoniarka.biblioteka.pagination.SortProperties;
 import com.betoniarka.biblioteka.review.dto.ReviewCreateDto;
 import com.betoniarka.biblioteka.review.dto.ReviewResponseDto;
 import com.betoniarka.biblioteka.review.dto.ReviewUpdateDto;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class ReviewService {
 
+    private static final SortProperties SORTABLE = new SortProperties("id", "rating", "comment");
+
     private final ReviewRepository reviewRepo;
     private final AppUserRepository appUserRepo;
     private final BookRepository bookRepo;
     private final ReviewMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Retrieves all reviews available in the system.
+     * Retrieves one page of reviews.
      *
-     * @return list of all reviews mapped to {@link ReviewResponseDto}
+     * @param pageable page number, size and sort order
+     * @return page of reviews mapped to {@link ReviewResponseDto}
      */
-    public List<ReviewResponseDto> getReviews() {
+    public PageResponse<ReviewResponseDto> getReviews(Pageable pageable) {
 
-        return reviewRepo.findAll().stream().map(mapper::toDto).toList();
+        return PageResponse.of(reviewRepo.findRows(SORTABLE.check(pageable)).map(ReviewRow::toDto));
+    }
+
+    /**
+     * Retrieves the reviews following the given cursor, in id order.
+     *
+     * @param keyset id after which the page starts and its size
+     * @return page of reviews mapped to {@link ReviewResponseDto}
+     */
+    public PageResponse<ReviewResponseDto> getReviewsAfter(Keyset keyset) {
+
+        var rows = reviewRepo.findRowsByIdGreaterThan(keyset.after(), keyset.limit());
+        return PageResponse.of(rows, keyset, ReviewRow::id, ReviewRow::toDto);
     }
 
     /**
@@ -45,8 +64,8 @@ public class ReviewService {
     public ReviewResponseDto getReviewById(Long id) throws ResourceNotFoundException {
 
         return reviewRepo
-                .findById(id)
-                .map(mapper::toDto)
+                .findRowById(id)
+                .map(ReviewRow::toDto)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Review with id '%d' not found".formatted(id)));
     }
@@ -82,6 +101,7 @@ public class ReviewService {
         appUser.addReview(review, book);
 
         reviewRepo.save(review);
+        eventPublisher.publishEvent(new ReviewCreatedEvent(review));
         return mapper.toDto(review);
     }
 
@@ -123,6 +143,8 @@ public class ReviewService {
                         .findById(id)
                         .orElseThrow(() -> new ResourceNotFoundException("Review with id '%d' not found"));
 
+        eventPublisher.publishEvent(new ReviewDeletedEvent(review));
+
         AppUser user = review.getAppUser();
         user.deleteReview(review);
         reviewRepo.delete(review);
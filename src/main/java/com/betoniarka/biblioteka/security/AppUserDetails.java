@@ -1,7 +1,7 @@
 package com.betoniarka.biblioteka.security;
 
-import com.betoniarka.biblioteka.appuser.AppUser;
-import lombok.RequiredArgsConstructor;
+import com.betoniarka.biblioteka.appuser.AppUserCredentials;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,24 +9,36 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.List;
 
-@RequiredArgsConstructor
-public class AppUserDetails implements UserDetails {
+/**
+ * Immutable principal of an authenticated request. Controllers take it with
+ * {@code @AuthenticationPrincipal} and use {@link #appUserId()} instead of looking the user up by
+ * name again. {@link #loadedAt()} is the {@link CredentialInvalidations} stamp of the load.
+ */
+public record AppUserDetails(
+        long appUserId, String username, String password, AppUserRole role, long loadedAt)
+        implements UserDetails {
 
-    private final AppUser appUser;
+    public static AppUserDetails of(AppUserCredentials credentials, long loadedAt) {
+        return new AppUserDetails(
+                credentials.id(),
+                credentials.username(),
+                credentials.password(),
+                credentials.role(),
+                loadedAt);
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        String roleName = appUser.getRole().name();
-        return List.of(new SimpleGrantedAuthority("ROLE_" + roleName));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
     public String getPassword() {
-        return appUser.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return appUser.getUsername();
+        return username;
     }
 }
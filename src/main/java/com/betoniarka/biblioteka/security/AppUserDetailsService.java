@@ -1,6 +1,5 @@
 package com.betoniarka.biblioteka.security;
 
-import com.betoniarka.biblioteka.appuser.AppUser;
 import com.betoniarka.biblioteka.appuser.AppUserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,13 +12,14 @@ import org.springframework.stereotype.Service;
 public class AppUserDetailsService implements UserDetailsService {
 
     private final AppUserRepository repository;
+    private final CredentialInvalidations invalidations;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        AppUser user =
-                repository
-                        .findByUsername(username)
-                        .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        return new AppUserDetails(user);
+        long loadedAt = invalidations.current();
+        return repository
+                .findCredentialsByUsername(username)
+                .map(credentials -> AppUserDetails.of(credentials, loadedAt))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 }
@@ -0,0 +1,104 @@
+package com.betoniarka.biblioteka.security;
+
+import com.betoniarka.biblioteka.appuser.AppUserCredentialsChangedEvent;
+import com.betoniarka.biblioteka.appuser.AppUserDeletedEvent;
+import com.betoniarka.biblioteka.auth.dto.AuthTokenResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Issues and resolves opaque bearer tokens.
+ *
+ * <p>A token is 256 random bits; only its SHA-256 is kept, in a bounded in-memory cache, next to
+ * the principal it was issued for. Resolving a token is a hash and a map lookup, with no database
+ * access and no BCrypt. Tokens expire after {@code library.auth.tokenTtl}, are revoked when the
+ * user's credentials change or the user is deleted, and do not survive a restart. A principal
+ * loaded before such a change gets no token (see {@link CredentialInvalidations}).
+ */
+@Service
+public class AuthTokenService {
+
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private record Issued(AppUserDetails principal, Instant expiresAt) {
+    }
+
+    private final SecureRandom random = new SecureRandom();
+    private final Clock clock;
+    private final CredentialInvalidations invalidations;
+    private final Duration ttl;
+    private final Cache<String, Issued> tokens;
+
+    public AuthTokenService(
+            Clock clock,
+            CredentialInvalidations invalidations,
+            @Value("${library.auth.tokenTtl:1h}") Duration ttl,
+            @Value("${library.auth.maxTokens:100000}") long maxTokens) {
+        this.clock = clock;
+        this.invalidations = invalidations;
+        this.ttl = ttl;
+        this.tokens = Caffeine.newBuilder().maximumSize(maxTokens).expireAfterWrite(ttl).build();
+    }
+
+    public AuthTokenResponseDto issue(AppUserDetails principal) {
+        var bytes = new byte[32];
+        random.nextBytes(bytes);
+        var token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        var expiresAt = clock.instant().plus(ttl);
+
+        var hash = hash(token);
+        tokens.put(hash, new Issued(principal, expiresAt));
+        if (invalidations.isStale(principal)) {
+            tokens.invalidate(hash);
+            throw new AccessDeniedException("Credentials changed while the token was issued");
+        }
+        return new AuthTokenResponseDto(token, TOKEN_TYPE, expiresAt);
+    }
+
+    public Optional<AppUserDetails> resolve(String token) {
+        var issued = tokens.getIfPresent(hash(token));
+        if (issued == null || !issued.expiresAt().isAfter(clock.instant())) {
+            return Optional.empty();
+        }
+        return Optional.of(issued.principal());
+    }
+
+    public void revokeAll(long appUserId) {
+        invalidations.invalidate(appUserId);
+        tokens.asMap().values().removeIf(issued -> issued.principal().appUserId() == appUserId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(AppUserCredentialsChangedEvent event) {
+        revokeAll(event.appUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppUserDeleted(AppUserDeletedEvent event) {
+        revokeAll(event.appUserId());
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.betoniarka.biblioteka.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>} issued by {@link
+ * AuthTokenService}. Unknown or expired tokens leave the request unauthenticated, so protected
+ * endpoints answer 401 as they do for missing credentials.
+ *
+ * <p>Not a bean on purpose: it is added to the security filter chain only, not to the servlet
+ * filters.
+ */
+@RequiredArgsConstructor
+class BearerTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = AuthTokenService.TOKEN_TYPE + " ";
+
+    private final AuthTokenService tokenService;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        var header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            tokenService
+                    .resolve(header.substring(PREFIX.length()).trim())
+                    .ifPresent(
+                            principal -> {
+                                var context = SecurityContextHolder.createEmptyContext();
+                                context.setAuthentication(
+                                        UsernamePasswordAuthenticationToken.authenticated(
+                                                principal, null, principal.getAuthorities()));
+                                SecurityContextHolder.setContext(context);
+                            });
+        }
+        filterChain.doFilter(request, response);
+    }
+}
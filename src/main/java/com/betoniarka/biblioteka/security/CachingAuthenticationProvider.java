@@ -0,0 +1,120 @@
+package com.betoniarka.biblioteka.security;
+
+import com.betoniarka.biblioteka.appuser.AppUserCredentialsChangedEvent;
+import com.betoniarka.biblioteka.appuser.AppUserDeletedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Username/password authentication that remembers successful logins.
+ *
+ * <p>The first request of a user goes through {@link DaoAuthenticationProvider}: a database lookup
+ * and a BCrypt check. The principal is then cached together with an HMAC of the password under a
+ * key generated at startup, so later requests with the same credentials cost one HMAC instead. A
+ * different password always falls through to BCrypt. Entries expire after {@code
+ * library.auth.credentialCacheTtl} and are dropped as soon as the user's credentials change or the
+ * user is deleted; a login that loaded the credentials before such a change is not cached (see
+ * {@link CredentialInvalidations}).
+ */
+@Component
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private record Verified(byte[] passwordMac, AppUserDetails principal) {
+    }
+
+    private final DaoAuthenticationProvider delegate;
+    private final CredentialInvalidations invalidations;
+    private final SecretKeySpec key;
+    private final Cache<String, Verified> verified;
+
+    public CachingAuthenticationProvider(
+            AppUserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder,
+            CredentialInvalidations invalidations,
+            @Value("${library.auth.credentialCacheSize:10000}") long maximumSize,
+            @Value("${library.auth.credentialCacheTtl:5m}") Duration ttl) {
+        this.delegate = new DaoAuthenticationProvider(userDetailsService);
+        this.delegate.setPasswordEncoder(passwordEncoder);
+        this.invalidations = invalidations;
+
+        var secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC);
+        this.verified = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        byte[] passwordMac = mac(String.valueOf(authentication.getCredentials()));
+
+        var hit = verified.getIfPresent(username);
+        if (hit != null && MessageDigest.isEqual(hit.passwordMac(), passwordMac)) {
+            return authenticated(hit.principal());
+        }
+
+        var result = delegate.authenticate(authentication);
+        if (result.getPrincipal() instanceof AppUserDetails principal) {
+            var entry = new Verified(passwordMac, principal);
+            verified.put(username, entry);
+            if (invalidations.isStale(principal)) {
+                verified.asMap().remove(username, entry);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    public void invalidate(long appUserId) {
+        invalidations.invalidate(appUserId);
+        verified.asMap().values().removeIf(entry -> entry.principal().appUserId() == appUserId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCredentialsChanged(AppUserCredentialsChangedEvent event) {
+        invalidate(event.appUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppUserDeleted(AppUserDeletedEvent event) {
+        invalidate(event.appUserId());
+    }
+
+    private static Authentication authenticated(AppUserDetails principal) {
+        return UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, principal.getAuthorities());
+    }
+
+    private byte[] mac(String password) {
+        try {
+            var mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC + " is not available", e);
+        }
+    }
+}
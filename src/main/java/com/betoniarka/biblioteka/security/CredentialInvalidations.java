@@ -0,0 +1,35 @@
+package com.betoniarka.biblioteka.security;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells whether a principal was loaded before its user's credentials last changed.
+ *
+ * <p>Every invalidation takes the next value of a counter and records it for its user. A principal
+ * is stamped with the counter as it was right before its credentials were read, since the user's
+ * id is only known afterwards; it is stale once its user was invalidated past that stamp. Caches
+ * add their entry first and check afterwards, while {@link #invalidate} runs before they remove
+ * the user's entries, so an entry loaded before a change never outlives it.
+ */
+@Component
+public class CredentialInvalidations {
+
+    private final AtomicLong counter = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    /** Taken before the credentials are read and kept in {@link AppUserDetails#loadedAt}. */
+    public long current() {
+        return counter.get();
+    }
+
+    public void invalidate(long appUserId) {
+        invalidatedAt.merge(appUserId, counter.incrementAndGet(), Math::max);
+    }
+
+    public boolean isStale(AppUserDetails principal) {
+        return invalidatedAt.getOrDefault(principal.appUserId(), 0L) > principal.loadedAt();
+    }
+}
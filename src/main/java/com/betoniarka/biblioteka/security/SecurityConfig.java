@@ -1,13 +1,16 @@
 package com.betoniarka.biblioteka.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -20,19 +23,28 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthTokenService tokenService)
+            throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(
                         auth ->
-                                auth.requestMatchers(
+                                auth.requestMatchers(HttpMethod.GET, "/auth/login")
+                                        .permitAll()
+                                        .requestMatchers(
                                                 "/auth/register",
-                                                "/auth/login",
                                                 "/v3/api-docs/**",
                                                 "/swagger-ui/**",
                                                 "/swagger-ui.html")
                                         .permitAll()
+                                        // the request that opened a notification stream was already
+                                        // authorized; its async dispatch on completion must not be
+                                        // rejected on an already committed response
+                                        .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                                        .permitAll()
                                         .anyRequest()
                                         .authenticated())
+                .addFilterBefore(
+                        new BearerTokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class)
                 .httpBasic(httpBasic -> {
                 });
 
@@ -0,0 +1,44 @@
+package com.betoniarka.biblioteka.statistics;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+
+/**
+ * Per-day, per-book borrow counters (UTC days).
+ *
+ * <p>Borrows are bucketed by the day they started, returns and late returns by the day they
+ * happened. Category totals are obtained by joining the book's categories, so windowed reports sum
+ * at most {@code days * books} rows instead of scanning {@code borrowed_book}.
+ *
+ * <p>{@code book_id} is deliberately not a foreign key: rows of a deleted book are removed by
+ * {@link BorrowRollupService}, not by the database.
+ */
+@Entity
+@Table(
+        name = "borrow_daily_rollup",
+        indexes = @Index(name = "idx_borrow_daily_rollup_bucket", columnList = "bucket_date"))
+public class BorrowDailyRollup {
+
+    @Getter
+    @EmbeddedId
+    private BorrowDailyRollupId id;
+
+    @Getter
+    @Column(name = "started")
+    private long started;
+
+    @Getter
+    @Column(name = "returned")
+    private long returned;
+
+    @Getter
+    @Column(name = "returned_overdue")
+    private long returnedOverdue;
+
+    public BorrowDailyRollup() {
+    }
+}
@@ -0,0 +1,40 @@
+package com.betoniarka.biblioteka.statistics;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class BorrowDailyRollupId {
+
+    @Getter
+    @Column(name = "bucket_date")
+    private LocalDate bucketDate;
+
+    @Getter
+    @Column(name = "book_id")
+    private long bookId;
+
+    public BorrowDailyRollupId() {
+    }
+
+    public BorrowDailyRollupId(LocalDate bucketDate, long bookId) {
+        this.bucketDate = bucketDate;
+        this.bookId = bookId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        BorrowDailyRollupId that = (BorrowDailyRollupId) o;
+        return bookId == that.bookId && Objects.equals(bucketDate, that.bucketDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bucketDate, bookId);
+    }
+}
@@ -0,0 +1,75 @@
+package com.betoniarka.biblioteka.statistics;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BorrowDailyRollupRepository
+        extends JpaRepository<BorrowDailyRollup, BorrowDailyRollupId> {
+
+    /**
+     * Adds the given deltas to a bucket, creating it when missing. A single {@code MERGE} keeps
+     * concurrent first-of-day borrows of the same book from racing on the insert. The query space
+     * keeps Hibernate from clearing the whole second-level cache after it, as it does for native
+     * statements that do not declare what they touch.
+     */
+    @Modifying
+    @Query(
+            nativeQuery = true,
+            value =
+                    """
+                            merge into borrow_daily_rollup r
+                            using (select cast(:bucketDate as date) as bucket_date,
+                                          cast(:bookId as bigint) as book_id) v
+                            on r.bucket_date = v.bucket_date and r.book_id = v.book_id
+                            when matched then update set
+                                started = r.started + :started,
+                                returned = r.returned + :returned,
+                                returned_overdue = r.returned_overdue + :returnedOverdue
+                            when not matched then insert
+                                (bucket_date, book_id, started, returned, returned_overdue)
+                                values (v.bucket_date, v.book_id, :started, :returned, :returnedOverdue)""")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "borrow_daily_rollup"))
+    int addToBucket(
+            @Param("bucketDate") LocalDate bucketDate,
+            @Param("bookId") long bookId,
+            @Param("started") long started,
+            @Param("returned") long returned,
+            @Param("returnedOverdue") long returnedOverdue);
+
+    @Modifying
+    @Query("delete from BorrowDailyRollup r where r.id.bookId = :bookId")
+    int deleteByBookId(@Param("bookId") long bookId);
+
+    @Modifying
+    @Query("delete from BorrowDailyRollup r")
+    int deleteAllBuckets();
+
+    // Buckets recomputed from borrowed_book; a null appUserId means every user
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.statistics.RollupBucket(
+                        cast(b.borrowedAt as LocalDate), b.book.id, count(b), 0L, 0L)
+                    from Borrow b
+                    where :appUserId is null or b.appUser.id = :appUserId
+                    group by cast(b.borrowedAt as LocalDate), b.book.id""")
+    List<RollupBucket> computeStartedBuckets(@Param("appUserId") Long appUserId);
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.statistics.RollupBucket(
+                        cast(b.returnedAt as LocalDate), b.book.id, 0L, count(b),
+                        sum(case when b.returnedAt > b.borrowedAt + b.borrowDuration then 1L else 0L end))
+                    from Borrow b
+                    where b.returnedAt is not null and (:appUserId is null or b.appUser.id = :appUserId)
+                    group by cast(b.returnedAt as LocalDate), b.book.id""")
+    List<RollupBucket> computeReturnedBuckets(@Param("appUserId") Long appUserId);
+}
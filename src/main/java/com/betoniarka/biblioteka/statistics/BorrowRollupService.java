@@ -0,0 +1,104 @@
+package com.betoniarka.biblioteka.statistics;
+
+import com.betoniarka.biblioteka.appuser.AppUserDeletedEvent;
+import com.betoniarka.biblioteka.book.BookDeletedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowCreatedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowReturnedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps {@link BorrowDailyRollup} buckets in sync with {@code borrowed_book}.
+ *
+ * <p>Like {@link LibraryStatisticsService}, listeners run inside the publishing transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BorrowRollupService {
+
+    private final BorrowDailyRollupRepository repository;
+
+    public static LocalDate bucketOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    @EventListener
+    @Transactional
+    public void onBorrowCreated(BorrowCreatedEvent event) {
+        var borrow = event.borrow();
+
+        repository.addToBucket(bucketOf(borrow.getBorrowedAt()), borrow.getBook().getId(), 1, 0, 0);
+    }
+
+    @EventListener
+    @Transactional
+    public void onBorrowReturned(BorrowReturnedEvent event) {
+        var borrow = event.borrow();
+        var dueAt = borrow.getBorrowedAt().plus(borrow.getBorrowDuration());
+        long overdue = borrow.getReturnedAt().isAfter(dueAt) ? 1 : 0;
+
+        repository.addToBucket(
+                bucketOf(borrow.getReturnedAt()), borrow.getBook().getId(), 0, 1, overdue);
+    }
+
+    @EventListener
+    @Transactional
+    public void onBookDeleted(BookDeletedEvent event) {
+        repository.deleteByBookId(event.book().getId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onAppUserDeleted(AppUserDeletedEvent event) {
+        subtractBuckets(event.appUserId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (repository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /** Recomputes every bucket from {@code borrowed_book}; runs together with the counter rebuild. */
+    @Scheduled(cron = "${library.statistics.reconcileCron:0 0 3 * * *}")
+    @Transactional
+    public void rebuild() {
+        repository.deleteAllBuckets();
+        addBuckets(null, 1);
+        log.info("Borrow rollup rebuilt.");
+    }
+
+    private void subtractBuckets(long appUserId) {
+        addBuckets(appUserId, -1);
+    }
+
+    private void addBuckets(Long appUserId, long sign) {
+        for (var bucket : repository.computeStartedBuckets(appUserId)) {
+            add(bucket, sign);
+        }
+        for (var bucket : repository.computeReturnedBuckets(appUserId)) {
+            add(bucket, sign);
+        }
+    }
+
+    private void add(RollupBucket bucket, long sign) {
+        repository.addToBucket(
+                bucket.bucketDate(),
+                bucket.bookId(),
+                sign * bucket.started(),
+                sign * bucket.returned(),
+                sign * bucket.returnedOverdue());
+    }
+}
@@ -0,0 +1,77 @@
+package com.betoniarka.biblioteka.statistics;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Running totals behind the {@code /report/book/summary} and {@code /report/borrow/summary}
+ * endpoints.
+ *
+ * <p>The totals are split over {@link #STRIPES} rows with ids {@code 1..STRIPES} and summed on read,
+ * so concurrent borrows rarely wait for each other. Every change adds its atomic delta to row
+ * {@code 1 + threadId % STRIPES} of the thread running it, in the same transaction as the change
+ * that caused it. A transaction therefore only ever locks a single stripe, which it takes after
+ * its user and book rows, and requests on different threads usually land on different rows. The
+ * table is periodically rebuilt from scratch by {@link LibraryStatisticsService#rebuild()}.
+ */
+@Entity
+@Table(name = "library_statistics")
+public class LibraryStatistics {
+
+    public static final int STRIPES = 8;
+
+    @Getter
+    @Id
+    private long id;
+
+    @Getter
+    @Setter
+    @Column(name = "total_borrows")
+    private long totalBorrows;
+
+    @Getter
+    @Setter
+    @Column(name = "current_borrows")
+    private long currentBorrows;
+
+    @Getter
+    @Setter
+    @Column(name = "available_copies")
+    private long availableCopies;
+
+    @Getter
+    @Setter
+    @Column(name = "never_borrowed_books")
+    private long neverBorrowedBooks;
+
+    @Getter
+    @Setter
+    @Column(name = "book_categories")
+    private long bookCategories;
+
+    /** Whole days of every returned borrow, each rounded down on its own. */
+    @Getter
+    @Setter
+    @Column(name = "returned_borrow_days")
+    private long returnedBorrowDays;
+
+    public LibraryStatistics() {
+    }
+
+    public LibraryStatistics(long id) {
+        this.id = id;
+    }
+
+    void clear() {
+        totalBorrows = 0;
+        currentBorrows = 0;
+        availableCopies = 0;
+        neverBorrowedBooks = 0;
+        bookCategories = 0;
+        returnedBorrowDays = 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.betoniarka.biblioteka.statistics;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LibraryStatisticsRepository extends JpaRepository<LibraryStatistics, Long> {
+
+    @Query(
+            """
+                    select new com.betoniarka.biblioteka.statistics.StatisticsSnapshot(
+                        coalesce(sum(s.totalBorrows), 0), coalesce(sum(s.currentBorrows), 0),
+                        coalesce(sum(s.availableCopies), 0), coalesce(sum(s.neverBorrowedBooks), 0),
+                        coalesce(sum(s.bookCategories), 0), coalesce(sum(s.returnedBorrowDays), 0))
+                    from LibraryStatistics s""")
+    StatisticsSnapshot sumSnapshot();
+
+    /** Locks every stripe, in id order like every other transaction that locks more than one. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from LibraryStatistics s order by s.id")
+    List<LibraryStatistics> findAllForUpdate();
+
+    @Modifying
+    @Query(
+            """
+                    update LibraryStatistics s set
+                        s.totalBorrows = s.totalBorrows + :totalBorrows,
+                        s.currentBorrows = s.currentBorrows + :currentBorrows,
+                        s.availableCopies = s.availableCopies + :availableCopies,
+                        s.neverBorrowedBooks = s.neverBorrowedBooks + :neverBorrowedBooks,
+                        s.bookCategories = s.bookCategories + :bookCategories,
+                        s.returnedBorrowDays = s.returnedBorrowDays + :returnedBorrowDays
+                    where s.id = :id""")
+    int applyDelta(
+            @Param("id") long id,
+            @Param("totalBorrows") long totalBorrows,
+            @Param("currentBorrows") long currentBorrows,
+            @Param("availableCopies") long availableCopies,
+            @Param("neverBorrowedBooks") long neverBorrowedBooks,
+            @Param("bookCategories") long bookCategories,
+            @Param("returnedBorrowDays") long returnedBorrowDays);
+
+    // Full recount, used by the reconciliation job
+
+    @Query("select coalesce(sum(b.count), 0) from Book b")
+    long sumAvailableCopies();
+
+    @Query("select count(b) from Borrow b")
+    long countBorrows();
+
+    @Query("select count(b) from Borrow b where b.returnedAt is null")
+    long countCurrentBorrows();
+
+    @Query("select count(b) from Book b where b.borrowedBy is empty")
+    long countNeverBorrowedBooks();
+
+    @Query("select count(c) from Book b join b.categories c")
+    long countBookCategories();
+
+    @Query(
+            """
+                    select coalesce(sum(((b.returnedAt - b.borrowedAt) by second) / 86400), 0)
+                    from Borrow b
+                    where b.returnedAt is not null""")
+    long sumReturnedBorrowDays();
+
+    // Per-book and per-user totals, used to subtract rows removed by cascading deletes
+
+    @Query("select count(b) from Borrow b where b.book.id = :bookId")
+    long countBorrowsOfBook(@Param("bookId") long bookId);
+
+    @Query("select count(b) from Borrow b where b.book.id = :bookId and b.returnedAt is null")
+    long countCurrentBorrowsOfBook(@Param("bookId") long bookId);
+
+    @Query(
+            """
+                    select coalesce(sum(((b.returnedAt - b.borrowedAt) by second) / 86400), 0)
+                    from Borrow b
+                    where b.book.id = :bookId and b.returnedAt is not null""")
+    long sumReturnedBorrowDaysOfBook(@Param("bookId") long bookId);
+
+    @Query("select count(b) from Borrow b where b.appUser.id = :appUserId")
+    long countBorrowsOfAppUser(@Param("appUserId") long appUserId);
+
+    @Query(
+            "select count(b) from Borrow b where b.appUser.id = :appUserId and b.returnedAt is null")
+    long countCurrentBorrowsOfAppUser(@Param("appUserId") long appUserId);
+
+    @Query(
+            """
+                    select coalesce(sum(((b.returnedAt - b.borrowedAt) by second) / 86400), 0)
+                    from Borrow b
+                    where b.appUser.id = :appUserId and b.returnedAt is not null""")
+    long sumReturnedBorrowDaysOfAppUser(@Param("appUserId") long appUserId);
+
+    /**
+     * Counts books that were borrowed only by the given user, i.e. books that become never borrowed
+     * once the user's borrows are removed.
+     */
+    @Query(
+            """
+                    select count(distinct b.book.id)
+                    from Borrow b
+                    where b.appUser.id = :appUserId
+                        and not exists (
+                            select 1 from Borrow o where o.book = b.book and o.appUser.id <> :appUserId)""")
+    long countBooksBorrowedOnlyByAppUser(@Param("appUserId") long appUserId);
+}
@@ -0,0 +1,191 @@
+package com.betoniarka.biblioteka.statistics;
+
+import com.betoniarka.biblioteka.appuser.AppUserDeletedEvent;
+import com.betoniarka.biblioteka.book.BookCreatedEvent;
+import com.betoniarka.biblioteka.book.BookDeletedEvent;
+import com.betoniarka.biblioteka.book.BookUpdatedEvent;
+import com.betoniarka.biblioteka.book.BooksImportedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowCreatedEvent;
+import com.betoniarka.biblioteka.borrow.BorrowReturnedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.betoniarka.biblioteka.statistics.LibraryStatistics.STRIPES;
+
+/**
+ * Keeps {@link LibraryStatistics} in sync with the catalogue and circulation.
+ *
+ * <p>Listeners run synchronously inside the transaction that published the event, so a rolled back
+ * borrow or book change never leaves its delta behind.
+ *
+ * <p>A transaction adds all of its deltas to the stripe of its thread, and locks it only after the
+ * app user and book rows it changes: borrows, returns and book or user changes all lock the app
+ * user first, then the book, then the statistics stripe, so they cannot deadlock on each other.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LibraryStatisticsService {
+
+    private final LibraryStatisticsRepository repository;
+
+    /**
+     * Sums the stripes with a scalar projection, so the result always reflects the deltas applied by
+     * bulk updates earlier in the same transaction.
+     */
+    @Transactional(readOnly = true)
+    public StatisticsSnapshot current() {
+        return repository.sumSnapshot();
+    }
+
+    @EventListener
+    @Transactional
+    public void onBorrowCreated(BorrowCreatedEvent event) {
+        var bookId = event.borrow().getBook().getId();
+        boolean firstBorrowOfBook = repository.countBorrowsOfBook(bookId) == 1;
+
+        applyDelta(1, 1, -1, firstBorrowOfBook ? -1 : 0, 0, 0);
+    }
+
+    @EventListener
+    @Transactional
+    public void onBorrowReturned(BorrowReturnedEvent event) {
+        var borrow = event.borrow();
+        long borrowDays = Duration.between(borrow.getBorrowedAt(), borrow.getReturnedAt()).toDays();
+
+        applyDelta(0, -1, 1, 0, 0, borrowDays);
+    }
+
+    @EventListener
+    @Transactional
+    public void onBookCreated(BookCreatedEvent event) {
+        var book = event.book();
+
+        applyDelta(0, 0, book.getCount(), 1, book.getCategories().size(), 0);
+    }
+
+    @EventListener
+    @Transactional
+    public void onBooksImported(BooksImportedEvent event) {
+        long copies = 0;
+        long categories = 0;
+        for (var book : event.books()) {
+            copies += book.getCount();
+            categories += book.getCategories().size();
+        }
+
+        applyDelta(0, 0, copies, event.books().size(), categories, 0);
+    }
+
+    @EventListener
+    @Transactional
+    public void onBookUpdated(BookUpdatedEvent event) {
+        var book = event.book();
+
+        applyDelta(
+                0,
+                0,
+                book.getCount() - event.previousCount(),
+                0,
+                book.getCategories().size() - event.previousCategoryCount(),
+                0);
+    }
+
+    @EventListener
+    @Transactional
+    public void onBookDeleted(BookDeletedEvent event) {
+        var book = event.book();
+        long borrows = repository.countBorrowsOfBook(book.getId());
+        long currentBorrows = repository.countCurrentBorrowsOfBook(book.getId());
+        long borrowDays = repository.sumReturnedBorrowDaysOfBook(book.getId());
+
+        applyDelta(
+                -borrows,
+                -currentBorrows,
+                -book.getCount(),
+                borrows == 0 ? -1 : 0,
+                -book.getCategories().size(),
+                -borrowDays);
+    }
+
+    @EventListener
+    @Transactional
+    public void onAppUserDeleted(AppUserDeletedEvent event) {
+        long appUserId = event.appUserId();
+        long borrows = repository.countBorrowsOfAppUser(appUserId);
+        long currentBorrows = repository.countCurrentBorrowsOfAppUser(appUserId);
+        long borrowDays = repository.sumReturnedBorrowDaysOfAppUser(appUserId);
+        long booksLeftNeverBorrowed = repository.countBooksBorrowedOnlyByAppUser(appUserId);
+
+        applyDelta(-borrows, -currentBorrows, 0, booksLeftNeverBorrowed, 0, -borrowDays);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (repository.count() < STRIPES) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes every counter from the underlying tables.
+     *
+     * <p>Every stripe is locked first, so deltas from concurrent transactions either commit before
+     * the recount (and are included in it) or wait and are applied on top of it. The totals go to the
+     * first stripe and the others are cleared; missing stripes are created.
+     */
+    @Scheduled(cron = "${library.statistics.reconcileCron:0 0 3 * * *}")
+    @Transactional
+    public void rebuild() {
+        var stripes = new ArrayList<>(repository.findAllForUpdate());
+        Set<Long> existing =
+                stripes.stream().map(LibraryStatistics::getId).collect(Collectors.toSet());
+        for (long id = 1; id <= STRIPES; id++) {
+            if (!existing.contains(id)) {
+                stripes.add(new LibraryStatistics(id));
+            }
+        }
+        stripes.sort(Comparator.comparingLong(LibraryStatistics::getId));
+        stripes.forEach(LibraryStatistics::clear);
+
+        var statistics = stripes.getFirst();
+        statistics.setTotalBorrows(repository.countBorrows());
+        statistics.setCurrentBorrows(repository.countCurrentBorrows());
+        statistics.setAvailableCopies(repository.sumAvailableCopies());
+        statistics.setNeverBorrowedBooks(repository.countNeverBorrowedBooks());
+        statistics.setBookCategories(repository.countBookCategories());
+        statistics.setReturnedBorrowDays(repository.sumReturnedBorrowDays());
+
+        repository.saveAll(stripes);
+        log.info("Library statistics rebuilt.");
+    }
+
+    private void applyDelta(
+            long totalBorrows,
+            long currentBorrows,
+            long availableCopies,
+            long neverBorrowedBooks,
+            long bookCategories,
+            long returnedBorrowDays) {
+        repository.applyDelta(
+                1 + Thread.currentThread().threadId() % STRIPES,
+                totalBorrows,
+                currentBorrows,
+                availableCopies,
+                neverBorrowedBooks,
+                bookCategories,
+                returnedBorrowDays);
+    }
+}
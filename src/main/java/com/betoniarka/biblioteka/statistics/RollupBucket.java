@@ -0,0 +1,7 @@
+package com.betoniarka.biblioteka.statistics;
+
+import java.time.LocalDate;
+
+public record RollupBucket(
+        LocalDate bucketDate, Long bookId, Long started, Long returned, Long returnedOverdue) {
+}
@@ -0,0 +1,10 @@
+package com.betoniarka.biblioteka.statistics;
+
+public record StatisticsSnapshot(
+        long totalBorrows,
+        long currentBorrows,
+        long availableCopies,
+        long neverBorrowedBooks,
+        long bookCategories,
+        long returnedBorrowDays) {
+}
@@ -0,0 +1,136 @@
+-- Schema of the entities as of the introduction of Flyway. Applied in the prod profile only; the
+-- default profile still lets Hibernate create the in-memory schema, and FlywayMigrationTest checks
+-- that both agree (spring.jpa.hibernate.ddl-auto=validate).
+
+create sequence author_seq start with 1 increment by 50;
+create sequence book_seq start with 1 increment by 50;
+create sequence category_seq start with 1 increment by 50;
+create sequence notification_seq start with 1 increment by 50;
+
+create table app_user
+(
+    id        bigint generated by default as identity primary key,
+    username  varchar(255) not null,
+    firstname varchar(255),
+    lastname  varchar(255),
+    email     varchar(255) not null,
+    password  varchar(255) not null,
+    role      enum ('APP_USER', 'ADMIN', 'EMPLOYEE'),
+    constraint uk_app_user_username unique (username),
+    constraint uk_app_user_email unique (email)
+);
+
+create table author
+(
+    id   bigint       not null primary key,
+    name varchar(255) not null
+);
+
+create table category
+(
+    id   bigint       not null primary key,
+    name varchar(255) not null,
+    constraint uk_category_name unique (name)
+);
+
+create table book
+(
+    id        bigint       not null primary key,
+    title     varchar(255) not null,
+    count     integer      not null check (count >= 0),
+    author_id bigint,
+    constraint uk_book_title unique (title),
+    constraint fk_book_author foreign key (author_id) references author (id)
+);
+
+-- Column names follow the @JoinTable mapping on Book.categories: category_id holds the book id and
+-- book_id the category id.
+create table book_category
+(
+    category_id bigint not null,
+    book_id     bigint not null,
+    constraint fk_book_category_book foreign key (category_id) references book (id),
+    constraint fk_book_category_category foreign key (book_id) references category (id)
+);
+
+create table borrowed_book
+(
+    id              bigint generated by default as identity primary key,
+    borrowed_at     timestamp(6) with time zone not null,
+    returned_at     timestamp(6) with time zone,
+    borrow_duration interval second(18, 9)      not null,
+    app_user_id     bigint,
+    book_id         bigint,
+    constraint fk_borrowed_book_app_user foreign key (app_user_id) references app_user (id),
+    constraint fk_borrowed_book_book foreign key (book_id) references book (id)
+);
+
+create table queue_entry
+(
+    id             bigint generated by default as identity primary key,
+    timestamp      timestamp(6) with time zone not null,
+    queue_position bigint                      not null,
+    app_user_id    bigint,
+    book_id        bigint,
+    constraint uk_queue_entry_app_user_book unique (app_user_id, book_id),
+    constraint uk_queue_entry_book_position unique (book_id, queue_position),
+    constraint fk_queue_entry_app_user foreign key (app_user_id) references app_user (id),
+    constraint fk_queue_entry_book foreign key (book_id) references book (id)
+);
+
+create table review
+(
+    id          bigint generated by default as identity primary key,
+    rating      integer not null,
+    comment     varchar(255),
+    app_user_id bigint,
+    book_id     bigint,
+    constraint fk_review_app_user foreign key (app_user_id) references app_user (id),
+    constraint fk_review_book foreign key (book_id) references book (id)
+);
+
+create table notifications
+(
+    id          bigint                      not null primary key,
+    message     varchar(255),
+    app_user_id bigint,
+    created_at  timestamp(6) with time zone not null,
+    read_at     timestamp(6) with time zone,
+    constraint fk_notifications_app_user foreign key (app_user_id) references app_user (id)
+);
+
+create index idx_notifications_app_user_created on notifications (app_user_id, created_at);
+create index idx_notifications_created on notifications (created_at);
+
+create table notification_outbox
+(
+    id              bigint generated by default as identity primary key,
+    app_user_id     bigint                      not null,
+    message         varchar(255)                not null,
+    created_at      timestamp(6) with time zone not null,
+    attempts        integer                     not null,
+    next_attempt_at timestamp(6) with time zone
+);
+
+create index idx_notification_outbox_next_attempt on notification_outbox (next_attempt_at);
+
+create table library_statistics
+(
+    id                      bigint not null primary key,
+    total_borrows           bigint not null,
+    current_borrows         bigint not null,
+    available_copies        bigint not null,
+    never_borrowed_books    bigint not null,
+    book_categories         bigint not null,
+    returned_borrow_seconds bigint not null
+);
+
+create table borrow_daily_rollup
+(
+    bucket_date      date   not null,
+    book_id          bigint not null,
+    started          bigint not null,
+    returned         bigint not null,
+    returned_overdue bigint not null,
+    primary key (book_id, bucket_date)
+);
@@ -0,0 +1,19 @@
+-- Indexes for every foreign key not already leading another index, and for the report and
+-- statistics predicates. Mirrors the @Index declarations on the entities.
+
+create index idx_book_author on book (author_id);
+create index idx_book_category_category_id on book_category (category_id);
+create index idx_book_category_book_id on book_category (book_id);
+
+create index idx_borrowed_book_app_user_returned on borrowed_book (app_user_id, returned_at);
+create index idx_borrowed_book_book_borrowed on borrowed_book (book_id, borrowed_at);
+-- H2 has no partial indexes; with returned_at leading, "returned_at is null" selects exactly the
+-- open borrows and borrowed_at narrows them to the overdue ones.
+create index idx_borrowed_book_open on borrowed_book (returned_at, borrowed_at);
+
+create index idx_review_book on review (book_id);
+create index idx_review_app_user on review (app_user_id);
+
+create index idx_queue_entry_book_timestamp on queue_entry (book_id, timestamp);
+
+create index idx_borrow_daily_rollup_bucket on borrow_daily_rollup (bucket_date);
@@ -0,0 +1,23 @@
+-- Active borrows maintained on the user by AppUser#borrowBook/returnBook, backfilled from the
+-- borrow history.
+
+alter table app_user add column active_borrow_count integer default 0 not null;
+
+create table app_user_active_borrow
+(
+    app_user_id bigint not null,
+    book_id     bigint not null,
+    primary key (app_user_id, book_id),
+    constraint fk_app_user_active_borrow_app_user foreign key (app_user_id) references app_user (id)
+);
+
+update app_user u
+set active_borrow_count = (select count(*)
+                           from borrowed_book b
+                           where b.app_user_id = u.id
+                             and b.returned_at is null);
+
+insert into app_user_active_borrow (app_user_id, book_id)
+select distinct app_user_id, book_id
+from borrowed_book
+where returned_at is null;
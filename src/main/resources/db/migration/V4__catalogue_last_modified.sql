@@ -0,0 +1,6 @@
+-- Validators for conditional GETs of single books, authors and categories. Existing rows count as
+-- changed at migration time.
+
+alter table book add column last_modified timestamp(6) with time zone default current_timestamp not null;
+alter table author add column last_modified timestamp(6) with time zone default current_timestamp not null;
+alter table category add column last_modified timestamp(6) with time zone default current_timestamp not null;
@@ -0,0 +1,2 @@
+-- Entries that used up their attempts are now deleted by the dispatcher
+delete from notification_outbox where next_attempt_at is null;
@@ -0,0 +1,10 @@
+-- Commit-ordered versions of the book, author and category collections, the validators of their
+-- conditional GETs. Rows are created by CatalogueVersions on startup.
+
+create table catalogue_version
+(
+    catalogue enum ('BOOK', 'AUTHOR', 'CATEGORY') not null,
+    stripe    integer                             not null,
+    changes   bigint                              not null,
+    primary key (catalogue, stripe)
+);
@@ -0,0 +1,8 @@
+-- LibraryStatistics is split over 8 stripes summed on read. Row 1 keeps the current totals; the
+-- other stripes start at zero.
+
+insert into library_statistics (id, total_borrows, current_borrows, available_copies,
+                                never_borrowed_books, book_categories, returned_borrow_seconds)
+select x, 0, 0, 0, 0, 0, 0
+from system_range(2, 8)
+where exists (select 1 from library_statistics where id = 1);
@@ -0,0 +1,11 @@
+-- The borrow summary sums whole days per returned borrow, as it did before the statistics table,
+-- instead of rounding down the total seconds once.
+
+alter table library_statistics alter column returned_borrow_seconds rename to returned_borrow_days;
+
+update library_statistics
+set returned_borrow_days = case
+    when id = 1 then (select coalesce(sum(datediff('SECOND', borrowed_at, returned_at) / 86400), 0)
+                      from borrowed_book
+                      where returned_at is not null)
+    else 0 end;
@@ -0,0 +1,19 @@
+package com.betoniarka.biblioteka.appuser;
+
+import lombok.RequiredArgsConstructor;
+
+/** Saves plain app users for service tests; pull it in with {@code @Import(AppUserFixture.class)}. */
+@RequiredArgsConstructor
+public class AppUserFixture {
+
+    private final AppUserRepository appUserRepository;
+
+    public AppUser createUser(String username) {
+        AppUser user = new AppUser();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password123");
+        user.setRole(AppUserRole.APP_USER);
+        return appUserRepository.save(user);
+    }
+}
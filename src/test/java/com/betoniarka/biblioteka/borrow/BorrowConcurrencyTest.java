@@ -0,0 +1,157 @@
+package com.betoniarka.biblioteka.borrow;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.appuser.AppUserService;
+import com.betoniarka.biblioteka.book.BookRepository;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs borrows against committed data from many threads at once, so it is deliberately not
+ * {@code @Transactional}; everything it creates is deleted afterwards.
+ */
+@SpringBootTest
+class BorrowConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    AppUserService appUserService;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private Long bookId;
+
+    @AfterEach
+    void cleanup() {
+        if (bookId != null) {
+            bookService.delete(bookId);
+        }
+        userIds.forEach(appUserService::deleteById);
+    }
+
+    private long createUser(String username) {
+        AppUser user = new AppUser();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password123");
+        user.setRole(AppUserRole.APP_USER);
+        long id = appUserRepository.save(user).getId();
+        userIds.add(id);
+        return id;
+    }
+
+    /** Starts every task at the same moment and rethrows the first unexpected failure. */
+    private void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        var start = new CountDownLatch(1);
+        var failures = new ConcurrentLinkedQueue<Exception>();
+        try (var executor = Executors.newFixedThreadPool(tasks.size())) {
+            for (var task : tasks) {
+                executor.submit(
+                        () -> {
+                            try {
+                                start.await();
+                                task.call();
+                            } catch (Exception e) {
+                                failures.add(e);
+                            }
+                        });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+        if (!failures.isEmpty()) {
+            throw failures.peek();
+        }
+    }
+
+    @Test
+    void lastCopiesShouldNeverBeOversold() throws Exception {
+        int copies = 3;
+        bookId = bookService.create(new BookCreateDto("Lalka", copies, null, Set.of())).id();
+        var borrowed = new AtomicInteger();
+        var outOfStock = new AtomicInteger();
+
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < THREADS; i++) {
+            long userId = createUser("reader" + i);
+            tasks.add(
+                    () -> {
+                        try {
+                            borrowService.borrowBook(
+                                    new BorrowCreateDto(Duration.ofDays(14), bookId, userId));
+                            borrowed.incrementAndGet();
+                        } catch (ResourceConflictException e) {
+                            outOfStock.incrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+        runConcurrently(tasks);
+
+        assertThat(borrowed.get()).isEqualTo(copies);
+        assertThat(outOfStock.get()).isEqualTo(THREADS - copies);
+        assertThat(bookRepository.findCountById(bookId)).contains(0);
+    }
+
+    @Test
+    void concurrentBorrowsAndReturnsShouldNotLoseUpdates() throws Exception {
+        int copies = 5;
+        bookId = bookService.create(new BookCreateDto("Faraon", copies, null, Set.of())).id();
+
+        var tasks = new ArrayList<Callable<Void>>();
+        for (int i = 0; i < THREADS; i++) {
+            long userId = createUser("churn" + i);
+            tasks.add(
+                    () -> {
+                        for (int round = 0; round < 10; round++) {
+                            try {
+                                var borrow =
+                                        borrowService.borrowBook(
+                                                new BorrowCreateDto(Duration.ofDays(14), bookId, userId));
+                                borrowService.returnBook(borrow.id());
+                            } catch (ResourceConflictException e) {
+                                // out of stock for this round, try again
+                            }
+                        }
+                        return null;
+                    });
+        }
+        runConcurrently(tasks);
+
+        assertThat(bookRepository.findCountById(bookId)).contains(copies);
+    }
+}
@@ -0,0 +1,132 @@
+package com.betoniarka.biblioteka.borrow;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserFixture;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserService;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.book.dto.BookResponseDto;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Import(AppUserFixture.class)
+@Transactional
+class BorrowServiceTest {
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    AppUserFixture appUserFixture;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Autowired
+    AppUserService appUserService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    private BookResponseDto createBook(String title) {
+        return bookService.create(new BookCreateDto(title, 2, null, Set.of()));
+    }
+
+    private BorrowResponseDto borrow(AppUser user, BookResponseDto book) {
+        return borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(14), book.id(), user.getId()));
+    }
+
+    @Test
+    void activeBorrowsShouldFollowBorrowsAndReturns() {
+        var reader = appUserFixture.createUser("reader");
+        var lalka = createBook("Lalka");
+        var potop = createBook("Potop");
+        var quoVadis = createBook("Quo Vadis");
+        var emancypantki = createBook("Emancypantki");
+
+        var lalkaBorrow = borrow(reader, lalka);
+        borrow(reader, potop);
+        borrow(reader, quoVadis);
+
+        assertThat(reader.getActiveBorrowCount()).isEqualTo(3);
+        assertThat(reader.getBorrowedBookIds()).containsExactlyInAnyOrder(lalka.id(), potop.id(), quoVadis.id());
+        assertThatThrownBy(() -> borrow(reader, emancypantki))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageContaining("already has 3 books borrowed");
+
+        borrowService.returnBook(lalkaBorrow.id());
+
+        assertThat(reader.getActiveBorrowCount()).isEqualTo(2);
+        assertThat(reader.getBorrowedBookIds()).doesNotContain(lalka.id());
+        borrow(reader, emancypantki);
+        assertThat(reader.getActiveBorrowCount()).isEqualTo(3);
+    }
+
+    @Test
+    void borrowingABookAlreadyOutShouldConflict() {
+        var reader = appUserFixture.createUser("reader");
+        var lalka = createBook("Lalka");
+        borrow(reader, lalka);
+
+        assertThatThrownBy(() -> borrow(reader, lalka))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageContaining("already borrowed book 'Lalka'");
+        assertThat(reader.getActiveBorrowCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deletingABookShouldReleaseItsActiveBorrows() {
+        var reader = appUserFixture.createUser("reader");
+        var lalka = createBook("Lalka");
+        var potop = createBook("Potop");
+        borrow(reader, lalka);
+        borrow(reader, potop);
+        entityManager.flush();
+        entityManager.clear();
+
+        bookService.delete(lalka.id());
+        entityManager.flush();
+        entityManager.clear();
+
+        var reloaded = appUserRepository.findById(reader.getId()).orElseThrow();
+        assertThat(reloaded.getActiveBorrowCount()).isEqualTo(1);
+        assertThat(reloaded.getBorrowedBookIds()).containsExactly(potop.id());
+    }
+
+    @Test
+    void rebuildShouldRecountActiveBorrowsFromHistory() {
+        var reader = appUserFixture.createUser("reader");
+        var lalka = createBook("Lalka");
+        var potop = createBook("Potop");
+        var lalkaBorrow = borrow(reader, lalka);
+        borrow(reader, potop);
+        borrowService.returnBook(lalkaBorrow.id());
+        entityManager.flush();
+        entityManager.createNativeQuery("update app_user set active_borrow_count = 0").executeUpdate();
+        entityManager.createNativeQuery("delete from app_user_active_borrow").executeUpdate();
+
+        appUserService.rebuildActiveBorrows();
+        entityManager.clear();
+
+        var reloaded = appUserRepository.findById(reader.getId()).orElseThrow();
+        assertThat(reloaded.getActiveBorrowCount()).isEqualTo(1);
+        assertThat(reloaded.getBorrowedBookIds()).containsExactly(potop.id());
+    }
+}
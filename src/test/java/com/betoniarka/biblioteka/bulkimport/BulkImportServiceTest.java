@@ -0,0 +1,86 @@
+package com.betoniarka.biblioteka.bulkimport;
+
+import com.betoniarka.biblioteka.author.AuthorService;
+import com.betoniarka.biblioteka.author.dto.AuthorCreateDto;
+import com.betoniarka.biblioteka.book.BookRepository;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.bulkimport.dto.ImportRowErrorDto;
+import com.betoniarka.biblioteka.category.CategoryService;
+import com.betoniarka.biblioteka.category.dto.CategoryCreateDto;
+import com.betoniarka.biblioteka.statistics.LibraryStatisticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class BulkImportServiceTest {
+
+    @Autowired
+    BulkImportService importService;
+
+    @Autowired
+    AuthorService authorService;
+
+    @Autowired
+    CategoryService categoryService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LibraryStatisticsService statisticsService;
+
+    @Test
+    void importBooksShouldSkipInvalidRowsAndKeepTheRest() {
+        statisticsService.rebuild();
+        var before = statisticsService.current();
+        var author = authorService.create(new AuthorCreateDto("Stanisław Lem"));
+        var category = categoryService.create(new CategoryCreateDto("Science fiction"));
+        bookService.create(new BookCreateDto("Solaris", 1, null, Set.of()));
+
+        var result =
+                importService.importBooks(
+                        ImportRow.numbered(
+                                List.of(
+                                        new BookCreateDto("Eden", 2, author.id(), Set.of(category.id())),
+                                        new BookCreateDto("", 1, null, Set.of()),
+                                        new BookCreateDto("Solaris", 1, null, Set.of()),
+                                        new BookCreateDto("Fiasko", 1, -1L, Set.of()),
+                                        new BookCreateDto("Niezwyciężony", 3, author.id(), Set.of()),
+                                        new BookCreateDto("Eden", 1, null, Set.of()))));
+
+        assertThat(result.total()).isEqualTo(6);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors()).extracting(ImportRowErrorDto::row).containsExactly(2, 3, 4, 6);
+        assertThat(bookRepository.findExistingTitles(List.of("Eden", "Niezwyciężony", "Fiasko")))
+                .containsExactlyInAnyOrder("Eden", "Niezwyciężony");
+
+        var after = statisticsService.current();
+        assertThat(after.availableCopies()).isEqualTo(before.availableCopies() + 1 + 5);
+        assertThat(after.neverBorrowedBooks()).isEqualTo(before.neverBorrowedBooks() + 1 + 2);
+        assertThat(after.bookCategories()).isEqualTo(before.bookCategories() + 1);
+    }
+
+    @Test
+    void importCategoriesFromCsvShouldReportDuplicates() {
+        var result =
+                importService.importCategories(
+                        ImportCsv.categories("name\nPoezja\n\"Dramat, tragedia\"\nPoezja\n"));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.errors())
+                .containsExactly(
+                        new ImportRowErrorDto(3, "Category with name 'Poezja' already exists"));
+    }
+}
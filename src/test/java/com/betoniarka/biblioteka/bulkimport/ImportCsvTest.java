@@ -0,0 +1,35 @@
+package com.betoniarka.biblioteka.bulkimport;
+
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.exceptions.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportCsvTest {
+
+    @Test
+    void booksShouldBeParsedByHeaderName() {
+        var rows =
+                ImportCsv.books(
+                        "count,title,categoryIds,authorId\r\n"
+                                + "2,\"Lalka, tom 1\",1;3,7\r\n"
+                                + "x,Faraon,,\r\n"
+                                + "1,\"Cytat \"\"w\"\" tytule\",,\r\n");
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0))
+                .isEqualTo(ImportRow.of(1, new BookCreateDto("Lalka, tom 1", 2, 7L, Set.of(1L, 3L))));
+        assertThat(rows.get(1).error()).isEqualTo("count: 'x' is not a number");
+        assertThat(rows.get(2).value().title()).isEqualTo("Cytat \"w\" tytule");
+    }
+
+    @Test
+    void missingRequiredColumnShouldRejectTheUpload() {
+        assertThatThrownBy(() -> ImportCsv.books("title\nLalka\n"))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+}
@@ -0,0 +1,128 @@
+package com.betoniarka.biblioteka.cache;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.appuser.AppUserService;
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.book.BookRepository;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The second-level cache only serves committed data to later transactions, so this test is not
+ * {@code @Transactional}; everything it creates is deleted afterwards.
+ */
+@SpringBootTest(properties = "library.cache.statistics=true")
+class SecondLevelCacheTest {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    AppUserService appUserService;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    private final List<Long> bookIds = new ArrayList<>();
+    private Long appUserId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanup() {
+        bookIds.forEach(bookService::delete);
+        if (appUserId != null) {
+            appUserService.deleteById(appUserId);
+        }
+    }
+
+    private long createBook(String title, int count) {
+        long id = bookService.create(new BookCreateDto(title, count, null, Set.of())).id();
+        bookIds.add(id);
+        return id;
+    }
+
+    private long createUser() {
+        AppUser user = new AppUser();
+        user.setUsername("cached-reader");
+        user.setEmail("cached-reader@example.com");
+        user.setPassword("password123");
+        user.setRole(AppUserRole.APP_USER);
+        appUserId = appUserRepository.save(user).getId();
+        return appUserId;
+    }
+
+    private Book load(long id) {
+        return transactionTemplate.execute(status -> bookRepository.findById(id).orElseThrow());
+    }
+
+    private long bookHits() {
+        return statistics.getDomainDataRegionStatistics("book").getHitCount();
+    }
+
+    @Test
+    void findByIdShouldBeServedFromCacheInLaterTransactions() {
+        long bookId = createBook("Quo vadis", 2);
+        entityManagerFactory.getCache().evictAll();
+
+        load(bookId);
+        assertThat(entityManagerFactory.getCache().contains(Book.class, bookId)).isTrue();
+
+        long hitsBefore = bookHits();
+        load(bookId);
+
+        assertThat(bookHits()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void borrowShouldKeepOtherBooksCachedAndRefreshTheBorrowedOne() {
+        long borrowedId = createBook("Potop", 2);
+        long otherId = createBook("Krzyżacy", 2);
+        long userId = createUser();
+        load(borrowedId);
+        load(otherId);
+
+        borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(14), borrowedId, userId));
+
+        var cache = entityManagerFactory.getCache();
+        assertThat(cache.contains(Book.class, otherId)).isTrue();
+        assertThat(cache.contains(Book.class, borrowedId)).isTrue();
+        assertThat(load(borrowedId).getCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,175 @@
+package com.betoniarka.biblioteka.conditional;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.appuser.AppUserService;
+import com.betoniarka.biblioteka.author.AuthorService;
+import com.betoniarka.biblioteka.author.dto.AuthorCreateDto;
+import com.betoniarka.biblioteka.author.dto.AuthorUpdateDto;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.book.dto.BookUpdateDto;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Collection versions only move when the change commits, so this test is deliberately not
+ * {@code @Transactional}; everything it creates is deleted afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    private static final String ADMIN =
+            "Basic " + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    AuthorService authorService;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Autowired
+    AppUserService appUserService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private final List<Long> bookIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanup() {
+        bookIds.forEach(bookService::delete);
+        userIds.forEach(appUserService::deleteById);
+    }
+
+    private String eTag(String uri) throws Exception {
+        return mockMvc.perform(get(uri).header(HttpHeaders.AUTHORIZATION, ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertNotModified(String uri, String eTag) throws Exception {
+        mockMvc.perform(
+                        get(uri)
+                                .header(HttpHeaders.AUTHORIZATION, ADMIN)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void bookShouldBeNotModifiedUntilItChanges() throws Exception {
+        long bookId = bookService.create(new BookCreateDto("Lalka", 2, null, Set.of())).id();
+        bookIds.add(bookId);
+        var uri = "/books/" + bookId;
+
+        var eTag = eTag(uri);
+        assertNotModified(uri, eTag);
+        mockMvc.perform(get(uri).header(HttpHeaders.AUTHORIZATION, ADMIN))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+
+        bookService.update(bookId, new BookUpdateDto("Lalka (wyd. 2)", null, null, null));
+
+        assertThat(eTag(uri)).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void borrowShouldChangeTheETagOfTheBookAndItsCollection() throws Exception {
+        long bookId = bookService.create(new BookCreateDto("Przedwiośnie", 2, null, Set.of())).id();
+        bookIds.add(bookId);
+        var user = new AppUser();
+        user.setUsername("conditional-reader");
+        user.setEmail("conditional-reader@example.com");
+        user.setPassword("password123");
+        user.setRole(AppUserRole.APP_USER);
+        long userId = appUserRepository.save(user).getId();
+        userIds.add(userId);
+        var bookETag = eTag("/books/" + bookId);
+        var collectionETag = eTag("/books");
+
+        borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(14), bookId, userId));
+
+        assertThat(eTag("/books/" + bookId)).isNotEqualTo(bookETag);
+        assertThat(eTag("/books")).isNotEqualTo(collectionETag);
+    }
+
+    @Test
+    void collectionShouldChangeOnInsertUpdateAndDelete() throws Exception {
+        var created = eTag("/authors");
+        assertNotModified("/authors", created);
+
+        long authorId = authorService.create(new AuthorCreateDto("Bolesław Prus")).id();
+        var inserted = eTag("/authors");
+        assertThat(inserted).isNotEqualTo(created);
+
+        authorService.update(authorId, new AuthorUpdateDto("Aleksander Głowacki"));
+        var updated = eTag("/authors");
+        assertThat(updated).isNotEqualTo(inserted);
+
+        authorService.delete(authorId);
+        assertThat(eTag("/authors")).isNotEqualTo(updated);
+    }
+
+    @Test
+    void collectionShouldOnlyChangeWhenTheChangeCommits() throws Exception {
+        var before = eTag("/authors");
+
+        transactionTemplate.executeWithoutResult(
+                status -> {
+                    authorService.create(new AuthorCreateDto("Eliza Orzeszkowa"));
+                    status.setRollbackOnly();
+                });
+        assertNotModified("/authors", before);
+
+        long authorId = authorService.create(new AuthorCreateDto("Eliza Orzeszkowa")).id();
+        assertThat(eTag("/authors")).isNotEqualTo(before);
+
+        authorService.delete(authorId);
+    }
+
+    @Test
+    void missingResourceShouldStillBeNotFound() throws Exception {
+        mockMvc.perform(
+                        get("/categories/" + Long.MAX_VALUE)
+                                .header(HttpHeaders.AUTHORIZATION, ADMIN)
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound());
+    }
+}
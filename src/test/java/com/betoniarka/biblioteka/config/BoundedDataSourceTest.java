@@ -0,0 +1,38 @@
+package com.betoniarka.biblioteka.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedDataSourceTest {
+
+    private final BoundedDataSource dataSource =
+            new BoundedDataSource(
+                    new DriverManagerDataSource("jdbc:h2:mem:bulkhead"), 1, Duration.ofMillis(50));
+
+    @Test
+    void secondConnectionShouldTimeOutUntilTheFirstIsClosed() throws Exception {
+        var first = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        try (var second = dataSource.getConnection()) {
+            assertThat(second.isValid(1)).isTrue();
+        }
+    }
+
+    @Test
+    void closingTwiceShouldReleaseOnePermit() throws Exception {
+        var connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,35 @@
+package com.betoniarka.biblioteka.config;
+
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies the migrations to a fresh database with the settings of the prod profile, so Hibernate
+ * fails to start if they drift from the entity mappings.
+ */
+@SpringBootTest(
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:migrations;LOCK_TIMEOUT=10000",
+                "spring.flyway.enabled=true",
+                "spring.jpa.hibernate.ddl-auto=validate"
+        })
+class FlywayMigrationTest {
+
+    @Autowired
+    Flyway flyway;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Test
+    void migrationsShouldMatchTheEntitiesAndBeFullyApplied() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current()).isNotNull();
+        assertThat(appUserRepository.existsByUsername("admin")).isTrue();
+    }
+}
@@ -0,0 +1,68 @@
+package com.betoniarka.biblioteka.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Checks with {@code EXPLAIN} that the hot queries are served by the intended indexes. */
+@SpringBootTest
+class QueryPlanTest {
+
+    private static final Timestamp NOW = Timestamp.from(Instant.parse("2025-01-01T00:00:00Z"));
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private String plan(String sql, Object... args) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, args);
+    }
+
+    @Test
+    void borrowsOfBookSinceShouldUseBookBorrowedIndex() {
+        assertThat(plan("select count(*) from borrowed_book where book_id = ? and borrowed_at >= ?", 1L, NOW))
+                .containsIgnoringCase("idx_borrowed_book_book_borrowed");
+    }
+
+    @Test
+    void currentBorrowsOfUserShouldUseAppUserReturnedIndex() {
+        assertThat(plan("select count(*) from borrowed_book where app_user_id = ? and returned_at is null", 1L))
+                .containsIgnoringCase("idx_borrowed_book_app_user_returned");
+    }
+
+    @Test
+    void openBorrowsShouldUseOpenIndex() {
+        assertThat(plan("select id from borrowed_book where returned_at is null and borrowed_at < ?", NOW))
+                .containsIgnoringCase("idx_borrowed_book_open");
+    }
+
+    @Test
+    void queueOfBookByJoinTimeShouldUseBookTimestampIndex() {
+        assertThat(plan("select id from queue_entry where book_id = ? and timestamp >= ?", 1L, NOW))
+                .containsIgnoringCase("idx_queue_entry_book_timestamp");
+    }
+
+    @Test
+    void reviewsOfBookShouldUseBookIndex() {
+        assertThat(plan("select avg(rating) from review where book_id = ?", 1L))
+                .containsIgnoringCase("idx_review_book");
+    }
+
+    @Test
+    void notificationsOfUserSinceShouldUseAppUserCreatedIndex() {
+        assertThat(plan("select id from notifications where app_user_id = ? and created_at >= ?", 1L, NOW))
+                .containsIgnoringCase("idx_notifications_app_user_created");
+    }
+
+    @Test
+    void rollupWindowShouldUseBucketIndex() {
+        assertThat(plan("select sum(started) from borrow_daily_rollup where bucket_date >= ?", Date.valueOf("2025-01-01")))
+                .containsIgnoringCase("idx_borrow_daily_rollup_bucket");
+    }
+}
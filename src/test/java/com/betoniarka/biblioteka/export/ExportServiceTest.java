@@ -0,0 +1,72 @@
+package com.betoniarka.biblioteka.export;
+
+import com.betoniarka.biblioteka.appuser.AppUserFixture;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(AppUserFixture.class)
+@Transactional
+class ExportServiceTest {
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    AppUserFixture appUserFixture;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Test
+    void booksShouldBeExportedAsCsvWithQuotedFields() {
+        var book =
+                bookService.create(
+                        new BookCreateDto("Pan Tadeusz, czyli \"ostatni zajazd\"", 2, null, Set.of()));
+
+        var out = new ByteArrayOutputStream();
+        exportService.exportBooks(ExportFormat.CSV, out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo("id,title,count,authorId");
+        assertThat(lines).contains(book.id() + ",\"Pan Tadeusz, czyli \"\"ostatni zajazd\"\"\",2,");
+    }
+
+    @Test
+    void borrowsShouldBeExportedAsOneJsonObjectPerLine() {
+        var reader = appUserFixture.createUser("reader");
+        var book = bookService.create(new BookCreateDto("Solaris", 1, null, Set.of()));
+        var borrow =
+                borrowService.borrowBook(
+                        new BorrowCreateDto(Duration.ofDays(14), book.id(), reader.getId()));
+
+        var out = new ByteArrayOutputStream();
+        exportService.exportBorrows(ExportFormat.NDJSON, out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines)
+                .anySatisfy(
+                        line ->
+                                assertThat(line)
+                                        .startsWith("{\"id\":" + borrow.id() + ",")
+                                        .contains("\"title\":\"Solaris\"")
+                                        .contains("\"username\":\"reader\""));
+    }
+}
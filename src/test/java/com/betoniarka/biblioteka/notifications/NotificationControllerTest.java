@@ -0,0 +1,96 @@
+package com.betoniarka.biblioteka.notifications;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class NotificationControllerTest {
+
+    private static final String ADMIN = basic("admin", "admin");
+    private static final String READER = basic("notifiedreader", "password123");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    long readerId;
+    long otherId;
+
+    private static String basic(String username, String password) {
+        return "Basic "
+                + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long createUser(String username) {
+        AppUser user = new AppUser();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        user.setRole(AppUserRole.APP_USER);
+        return appUserRepository.save(user).getId();
+    }
+
+    @BeforeEach
+    void setup() {
+        readerId = createUser("notifiedreader");
+        otherId = createUser("otherreader");
+    }
+
+    @Test
+    void userShouldReadAndMarkTheirOwnNotifications() throws Exception {
+        mockMvc.perform(
+                        get("/appusers/{id}/notifications", readerId).header(HttpHeaders.AUTHORIZATION, READER))
+                .andExpect(status().isOk());
+        mockMvc.perform(
+                        post("/appusers/{id}/notifications/read", readerId)
+                                .header(HttpHeaders.AUTHORIZATION, READER))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void userShouldNotTouchNotificationsOfAnotherUser() throws Exception {
+        mockMvc.perform(
+                        get("/appusers/{id}/notifications", otherId).header(HttpHeaders.AUTHORIZATION, READER))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(
+                        post("/appusers/{id}/notifications/read", otherId)
+                                .header(HttpHeaders.AUTHORIZATION, READER))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(
+                        get("/appusers/{id}/notifications/stream", otherId)
+                                .header(HttpHeaders.AUTHORIZATION, READER))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void staffShouldReadNotificationsOfAnyUser() throws Exception {
+        mockMvc.perform(
+                        get("/appusers/{id}/notifications", otherId).header(HttpHeaders.AUTHORIZATION, ADMIN))
+                .andExpect(status().isOk());
+    }
+}
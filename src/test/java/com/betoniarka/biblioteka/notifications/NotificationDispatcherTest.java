@@ -0,0 +1,69 @@
+package com.betoniarka.biblioteka.notifications;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class NotificationDispatcherTest {
+
+    @Autowired
+    NotificationOutbox outbox;
+
+    @Autowired
+    NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    NotificationRepository notificationRepository;
+
+    @Autowired
+    NotificationDispatcher dispatcher;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Test
+    void drainShouldCreateNotificationsAndEmptyTheOutbox() {
+        AppUser reader = new AppUser();
+        reader.setUsername("reader");
+        reader.setEmail("reader@example.com");
+        reader.setPassword("password123");
+        reader.setRole(AppUserRole.APP_USER);
+        reader = appUserRepository.save(reader);
+
+        outbox.add(reader.getId(), "first");
+        outbox.add(reader.getId(), "second");
+        outbox.add(-1L, "for a deleted user");
+
+        assertThat(dispatcher.drain()).isGreaterThanOrEqualTo(2);
+        assertThat(outboxRepository.findAll())
+                .extracting(NotificationOutboxEntry::getAppUserId)
+                .doesNotContain(reader.getId(), -1L);
+        var notifications =
+                notificationRepository.getNotificationsByAppUser_Id(reader.getId(), Pageable.unpaged());
+        assertThat(notifications)
+                .extracting(Notification::getMessage)
+                .containsExactly("first", "second");
+    }
+
+    @Test
+    void retriesShouldBackOffExponentiallyAndStopAtMaxAttempts() {
+        var now = Instant.parse("2025-01-01T00:00:00Z");
+        var backoff = Duration.ofSeconds(1);
+
+        assertThat(NotificationDispatcher.nextAttemptAt(now, 1, 4, backoff)).isEqualTo(now.plusSeconds(1));
+        assertThat(NotificationDispatcher.nextAttemptAt(now, 3, 4, backoff)).isEqualTo(now.plusSeconds(4));
+        assertThat(NotificationDispatcher.nextAttemptAt(now, 4, 4, backoff)).isNull();
+    }
+}
@@ -0,0 +1,102 @@
+package com.betoniarka.biblioteka.notifications;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class NotificationServiceTest {
+
+    @Autowired
+    NotificationService service;
+
+    @Autowired
+    NotificationRetention retention;
+
+    @Autowired
+    NotificationRepository repository;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    Clock clock;
+
+    AppUser reader;
+
+    Instant now;
+
+    @BeforeEach
+    void setup() {
+        reader = new AppUser();
+        reader.setUsername("notified");
+        reader.setEmail("notified@example.com");
+        reader.setPassword("password123");
+        reader.setRole(AppUserRole.APP_USER);
+        reader = appUserRepository.save(reader);
+        now = clock.instant();
+    }
+
+    private Notification notify(String message, Instant createdAt) {
+        var notification = new Notification(message, createdAt);
+        notification.setAppUser(reader);
+        return repository.save(notification);
+    }
+
+    @Test
+    void findPageShouldOnlyReturnNotificationsSince() {
+        notify("old", now.minus(Duration.ofDays(2)));
+        notify("recent", now.minus(Duration.ofHours(1)));
+
+        var page =
+                repository.findPage(reader.getId(), now.minus(Duration.ofDays(1)), 0, false, Limit.of(10));
+
+        assertThat(page).extracting(Notification::getMessage).containsExactly("recent");
+    }
+
+    @Test
+    void markReadShouldMarkUpToTheGivenIdAndHideThemFromUnread() {
+        var first = notify("first", now);
+        notify("second", now);
+
+        assertThat(service.markRead(reader.getId(), first.getId())).isEqualTo(1);
+        entityManager.clear();
+
+        var unread = repository.findPage(reader.getId(), Instant.EPOCH, 0, true, Limit.of(10));
+        assertThat(unread).extracting(Notification::getMessage).containsExactly("second");
+
+        assertThat(service.markRead(reader.getId(), null)).isEqualTo(1);
+        entityManager.clear();
+        assertThat(repository.findPage(reader.getId(), Instant.EPOCH, 0, true, Limit.of(10))).isEmpty();
+        assertThat(repository.findPage(reader.getId(), Instant.EPOCH, 0, false, Limit.of(10)))
+                .allMatch(Notification::isRead);
+    }
+
+    @Test
+    void purgeShouldDeleteOnlyNotificationsPastRetention() {
+        var expired = notify("expired", now.minus(Duration.ofDays(365)));
+        var kept = notify("kept", now);
+
+        assertThat(retention.purge()).isGreaterThanOrEqualTo(1);
+
+        assertThat(repository.existsById(expired.getId())).isFalse();
+        assertThat(repository.existsById(kept.getId())).isTrue();
+    }
+}
@@ -0,0 +1,122 @@
+package com.betoniarka.biblioteka.notifications;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.appuser.AppUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/** Talks to a running server, so everything it creates is committed and deleted afterwards. */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class NotificationStreamTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Value("${local.server.port}")
+    int port;
+
+    @Autowired
+    NotificationOutbox outbox;
+
+    @Autowired
+    NotificationDispatcher dispatcher;
+
+    @Autowired
+    NotificationSubscriptions subscriptions;
+
+    @Autowired
+    NotificationRepository notificationRepository;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Autowired
+    AppUserService appUserService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    long readerId;
+
+    @BeforeEach
+    void createReader() {
+        AppUser reader = new AppUser();
+        reader.setUsername("streamreader");
+        reader.setEmail("streamreader@example.com");
+        reader.setPassword("password123");
+        reader.setRole(AppUserRole.APP_USER);
+        readerId = appUserRepository.save(reader).getId();
+    }
+
+    @AfterEach
+    void deleteReader() {
+        appUserService.deleteById(readerId);
+    }
+
+    private void notifyReader(String message) {
+        transactionTemplate.executeWithoutResult(status -> outbox.add(readerId, message));
+        dispatcher.drain();
+    }
+
+    private CompletableFuture<HttpResponse<Stream<String>>> connect(long lastEventId) {
+        var credentials = Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+        var request =
+                HttpRequest.newBuilder(
+                                URI.create("http://localhost:%d/appusers/%d/notifications/stream".formatted(port, readerId)))
+                        .header("Authorization", "Basic " + credentials)
+                        .header("Accept", "text/event-stream")
+                        .header("Last-Event-ID", Long.toString(lastEventId))
+                        .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+    }
+
+    private static String firstData(CompletableFuture<HttpResponse<Stream<String>>> response)
+            throws Exception {
+        try (var lines = response.get(10, TimeUnit.SECONDS).body()) {
+            return lines.filter(line -> line.startsWith("data:")).findFirst().orElseThrow();
+        }
+    }
+
+    @Test
+    void streamShouldReplayMissedNotificationsAndThenPushNewOnes() throws Exception {
+        notifyReader("while offline");
+        long seenId =
+                transactionTemplate.execute(
+                        status ->
+                                notificationRepository
+                                        .findByAppUser_IdAndIdGreaterThanOrderByIdAsc(
+                                                readerId, 0, Limit.of(1))
+                                        .getFirst()
+                                        .getId());
+
+        assertThat(firstData(connect(0))).contains("while offline");
+
+        var resumed = connect(seenId);
+        await().atMost(Duration.ofSeconds(10)).until(() -> subscriptions.subscriberCount(readerId) > 0);
+        notifyReader("live");
+
+        var data = firstData(resumed);
+        assertThat(data).contains("live").doesNotContain("while offline");
+    }
+}
@@ -0,0 +1,42 @@
+package com.betoniarka.biblioteka.pagination;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** The list endpoints backed by hand-written queries reject unknown sort properties themselves. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class ListEndpointSortTest {
+
+    private static final String ADMIN =
+            "Basic " + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/books", "/authors", "/categories", "/appusers", "/review"})
+    void unknownSortPropertyShouldBeABadRequest(String path) throws Exception {
+        mockMvc.perform(get(path).param("sort", "nope,desc").header("Authorization", ADMIN))
+                .andExpect(status().isBadRequest());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/books", "/authors", "/categories", "/appusers", "/review"})
+    void sortByIdShouldStillWork(String path) throws Exception {
+        mockMvc.perform(get(path).param("sort", "id,desc").header("Authorization", ADMIN))
+                .andExpect(status().isOk());
+    }
+}
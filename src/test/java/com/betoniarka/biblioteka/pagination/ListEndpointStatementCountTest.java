@@ -0,0 +1,157 @@
+package com.betoniarka.biblioteka.pagination;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.author.Author;
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.borrow.Borrow;
+import com.betoniarka.biblioteka.queueentry.QueueEntry;
+import com.betoniarka.biblioteka.review.Review;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every list endpoint has to load its page, and everything its DTOs read, in one statement however
+ * many rows it returns. Pages are requested larger than the data set, so no count query runs; the
+ * catalogue lists read their collection version for the ETag in one more.
+ */
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+@AutoConfigureMockMvc
+@Transactional
+class ListEndpointStatementCountTest {
+
+    private static final String ADMIN =
+            "Basic " + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager entityManager;
+
+    Book queuedBook;
+
+    int seeded;
+
+    @BeforeEach
+    void setup() throws Exception {
+        queuedBook = new Book();
+        queuedBook.setTitle("Queued");
+        entityManager.persist(queuedBook);
+
+        // the first request verifies the password against the database, later ones are served by
+        // the credential cache
+        mockMvc.perform(get("/authors").header("Authorization", ADMIN)).andExpect(status().isOk());
+    }
+
+    /** Adds {@code rows} authors, books, users, borrows, reviews and queue entries. */
+    private void seed(int rows) {
+        for (int i = seeded; i < seeded + rows; i++) {
+            var author = new Author();
+            author.setName("Author " + i);
+            entityManager.persist(author);
+
+            var book = new Book();
+            book.setTitle("Book " + i);
+            book.setAuthor(author);
+            entityManager.persist(book);
+
+            var user = new AppUser();
+            user.setUsername("reader" + i);
+            user.setEmail("reader" + i + "@example.com");
+            user.setPassword("password123");
+            user.setRole(AppUserRole.APP_USER);
+            entityManager.persist(user);
+
+            var borrow = new Borrow();
+            borrow.setAppUser(user);
+            borrow.setBook(book);
+            borrow.setBorrowedAt(Instant.now());
+            borrow.setBorrowDuration(Duration.ofDays(14));
+            entityManager.persist(borrow);
+
+            var review = new Review();
+            review.setRating(5);
+            review.setAppUser(user);
+            review.setBook(book);
+            entityManager.persist(review);
+
+            var entry = new QueueEntry();
+            entry.setAppUser(user);
+            entry.setBook(queuedBook);
+            entry.setTimestamp(Instant.now());
+            entry.setPosition(i + 1);
+            entityManager.persist(entry);
+        }
+        seeded += rows;
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long statements(String uri) throws Throwable {
+        return StatementCounter.count(
+                () -> mockMvc.perform(get(uri).header("Authorization", ADMIN)).andExpect(status().isOk()));
+    }
+
+    private void assertStatementsForAnyResultSize(String uri, int expected) throws Throwable {
+        seed(1);
+        assertThat(statements(uri)).as("%s with one row", uri).isEqualTo(expected);
+
+        seed(30);
+        assertThat(statements(uri)).as("%s with %d rows", uri, seeded).isEqualTo(expected);
+    }
+
+    private void assertSingleStatementForAnyResultSize(String uri) throws Throwable {
+        assertStatementsForAnyResultSize(uri, 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                    "/books?size=100",
+                    "/books?after=0&size=100",
+                    "/authors?size=100",
+                    "/authors?after=0&size=100",
+                    "/categories?size=100",
+                    "/categories?after=0&size=100"
+            })
+    void catalogueListShouldRunVersionAndPageStatementsForAnyResultSize(String uri) throws Throwable {
+        assertStatementsForAnyResultSize(uri, 2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                    "/appusers?size=100",
+                    "/appusers?after=0&size=100",
+                    "/borrows?size=100",
+                    "/borrows?after=0&size=100",
+                    "/review?size=100",
+                    "/review?after=0&size=100"
+            })
+    void listShouldRunOneStatementForAnyResultSize(String uri) throws Throwable {
+        assertSingleStatementForAnyResultSize(uri);
+    }
+
+    @Test
+    void queueShouldRunOneStatementForAnyLength() throws Throwable {
+        assertSingleStatementForAnyResultSize("/books/%d/queue".formatted(queuedBook.getId()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.betoniarka.biblioteka.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageResponseTest {
+
+    @Test
+    void keysetPageShouldDropProbeRowAndPointCursorAtLastReturnedId() {
+        var keyset = new Keyset(10, 2);
+
+        var page = PageResponse.of(List.of(11L, 14L, 20L), keyset, id -> id, Function.identity());
+
+        assertThat(page.content()).containsExactly(11L, 14L);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.nextCursor()).isEqualTo(14L);
+        assertThat(page.totalElements()).isNull();
+    }
+
+    @Test
+    void lastKeysetPageShouldHaveNoCursor() {
+        var keyset = new Keyset(14, 2);
+
+        var page = PageResponse.of(List.of(20L), keyset, id -> id, Function.identity());
+
+        assertThat(page.content()).containsExactly(20L);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void keysetSizeShouldBeClamped() {
+        assertThat(new Keyset(0, 0).size()).isEqualTo(1);
+        assertThat(new Keyset(0, 10_000).size()).isEqualTo(Keyset.MAX_SIZE);
+        assertThat(new Keyset(0, 20).limit().max()).isEqualTo(21);
+    }
+
+    @Test
+    void offsetPageShouldCarryTotals() {
+        var page = PageResponse.of(new PageImpl<>(List.of("a", "b"), PageRequest.of(1, 2), 5));
+
+        assertThat(page.page()).isEqualTo(1);
+        assertThat(page.totalElements()).isEqualTo(5);
+        assertThat(page.totalPages()).isEqualTo(3);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.nextCursor()).isNull();
+    }
+}
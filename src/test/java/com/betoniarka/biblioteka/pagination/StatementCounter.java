@@ -0,0 +1,38 @@
+package com.betoniarka.biblioteka.pagination;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.function.Executable;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the calling thread while {@link #count} runs.
+ * Hibernate creates the instance itself, so a test context enables it with {@link #PROPERTY}.
+ */
+public class StatementCounter implements StatementInspector {
+
+    static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                    + "com.betoniarka.biblioteka.pagination.StatementCounter";
+
+    private static final ThreadLocal<long[]> COUNTER = new ThreadLocal<>();
+
+    /** Runs {@code action} and returns how many statements it prepared on this thread. */
+    static long count(Executable action) throws Throwable {
+        var counter = new long[1];
+        COUNTER.set(counter);
+        try {
+            action.execute();
+        } finally {
+            COUNTER.remove();
+        }
+        return counter[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        var counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+}
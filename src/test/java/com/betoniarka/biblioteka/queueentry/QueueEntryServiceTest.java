@@ -0,0 +1,73 @@
+package com.betoniarka.biblioteka.queueentry;
+
+import com.betoniarka.biblioteka.appuser.AppUserFixture;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.book.dto.BookUpdateDto;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import com.betoniarka.biblioteka.exceptions.ResourceConflictException;
+import com.betoniarka.biblioteka.queueentry.dto.QueueEntryResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Import(AppUserFixture.class)
+@Transactional
+class QueueEntryServiceTest {
+
+    @Autowired
+    QueueEntryService queueEntryService;
+
+    @Autowired
+    QueueEntryRepository queueEntryRepository;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    AppUserFixture appUserFixture;
+
+    @Test
+    void queueShouldKeepJoinOrderAndReserveCopiesForItsHead() {
+        var first = appUserFixture.createUser("first");
+        var second = appUserFixture.createUser("second");
+        var third = appUserFixture.createUser("third");
+        var lalka = bookService.create(new BookCreateDto("Lalka", 1, null, Set.of()));
+
+        queueEntryService.joinQueue(first.getId(), lalka.id());
+        queueEntryService.joinQueue(second.getId(), lalka.id());
+
+        borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(14), lalka.id(), first.getId()));
+        assertThat(queueEntryRepository.existsByAppUserIdAndBookId(first.getId(), lalka.id())).isFalse();
+
+        queueEntryService.joinQueue(third.getId(), lalka.id());
+        assertThat(queueEntryService.getQueueForBook(lalka.id()))
+                .extracting(QueueEntryResponseDto::username)
+                .containsExactly("second", "third");
+        var secondEntry = queueEntryRepository.findByAppUserIdAndBookId(second.getId(), lalka.id());
+        var thirdEntry = queueEntryRepository.findByAppUserIdAndBookId(third.getId(), lalka.id());
+        assertThat(thirdEntry.orElseThrow().getPosition())
+                .isGreaterThan(secondEntry.orElseThrow().getPosition());
+
+        bookService.update(lalka.id(), new BookUpdateDto(null, 1, null, null));
+        assertThatThrownBy(
+                () ->
+                        borrowService.borrowBook(
+                                new BorrowCreateDto(Duration.ofDays(14), lalka.id(), third.getId())))
+                .isInstanceOf(ResourceConflictException.class)
+                .hasMessageContaining("reserved by another user");
+    }
+}
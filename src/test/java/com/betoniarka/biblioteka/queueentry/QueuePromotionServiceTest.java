@@ -0,0 +1,116 @@
+package com.betoniarka.biblioteka.queueentry;
+
+import com.betoniarka.biblioteka.appuser.AppUserFixture;
+import com.betoniarka.biblioteka.book.BookRepository;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.borrow.Borrow;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import com.betoniarka.biblioteka.notifications.NotificationDispatcher;
+import com.betoniarka.biblioteka.notifications.NotificationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(AppUserFixture.class)
+@Transactional
+class QueuePromotionServiceTest {
+
+    @Autowired
+    QueuePromotionService promotionService;
+
+    @Autowired
+    QueueEntryService queueEntryService;
+
+    @Autowired
+    QueueEntryRepository queueEntryRepository;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    AppUserFixture appUserFixture;
+
+    @Autowired
+    NotificationRepository notificationRepository;
+
+    @Autowired
+    NotificationDispatcher notificationDispatcher;
+
+    @Test
+    void returnedCopyShouldBeBorrowedForTheHeadOfTheQueue() {
+        var reader = appUserFixture.createUser("reader");
+        var waiter = appUserFixture.createUser("waiter");
+        var lalka = bookService.create(new BookCreateDto("Lalka", 1, null, Set.of()));
+        var borrow =
+                borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(7), lalka.id(), reader.getId()));
+        queueEntryService.joinQueue(waiter.getId(), lalka.id());
+
+        borrowService.returnBook(borrow.id());
+        int promoted = promotionService.promote(lalka.id());
+
+        assertThat(promoted).isEqualTo(1);
+        assertThat(bookRepository.findCountById(lalka.id())).contains(0);
+        assertThat(queueEntryRepository.existsByAppUserIdAndBookId(waiter.getId(), lalka.id())).isFalse();
+        assertThat(waiter.getCurrentBorrows())
+                .singleElement()
+                .extracting(Borrow::getBorrowDuration)
+                .isEqualTo(Duration.ofDays(14));
+
+        notificationDispatcher.drain();
+        assertThat(notificationRepository.getNotificationsByAppUser_Id(waiter.getId(), Pageable.unpaged()))
+                .hasSize(1);
+    }
+
+    @Test
+    void promoteShouldLeaveQueueAloneWhileNoCopyIsOnTheShelf() {
+        var reader = appUserFixture.createUser("reader");
+        var waiter = appUserFixture.createUser("waiter");
+        var lalka = bookService.create(new BookCreateDto("Lalka", 1, null, Set.of()));
+        borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(7), lalka.id(), reader.getId()));
+        queueEntryService.joinQueue(waiter.getId(), lalka.id());
+
+        assertThat(promotionService.promote(lalka.id())).isZero();
+        assertThat(queueEntryService.getQueueForBook(lalka.id())).hasSize(1);
+    }
+
+    @Test
+    void headUserAtTheBorrowLimitShouldLoseTheirPlace() {
+        var reader = appUserFixture.createUser("reader");
+        var busy = appUserFixture.createUser("busy");
+        var waiter = appUserFixture.createUser("waiter");
+        for (var title : new String[] {"Potop", "Faraon", "Emancypantki"}) {
+            var other = bookService.create(new BookCreateDto(title, 1, null, Set.of()));
+            borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(7), other.id(), busy.getId()));
+        }
+        var lalka = bookService.create(new BookCreateDto("Lalka", 1, null, Set.of()));
+        var borrow =
+                borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(7), lalka.id(), reader.getId()));
+        queueEntryService.joinQueue(busy.getId(), lalka.id());
+        queueEntryService.joinQueue(waiter.getId(), lalka.id());
+
+        borrowService.returnBook(borrow.id());
+        promotionService.promote(lalka.id());
+
+        // the refused borrow is not rolled back inside the test transaction, so the copy stays taken
+        // and only the eviction can be checked here
+        assertThat(queueEntryRepository.existsByAppUserIdAndBookId(busy.getId(), lalka.id())).isFalse();
+        assertThat(queueEntryRepository.existsByAppUserIdAndBookId(waiter.getId(), lalka.id())).isTrue();
+    }
+}
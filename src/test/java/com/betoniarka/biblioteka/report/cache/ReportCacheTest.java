@@ -0,0 +1,108 @@
+package com.betoniarka.biblioteka.report.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportCacheTest {
+
+    static class MutableClock extends Clock {
+
+        Instant now = Instant.parse("2026-01-07T06:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    MutableClock clock;
+    List<Runnable> pendingRefreshes;
+    AtomicInteger computations;
+    ReportCache cache;
+
+    @BeforeEach
+    void setup() {
+        clock = new MutableClock();
+        pendingRefreshes = new ArrayList<>();
+        computations = new AtomicInteger();
+        var properties =
+                new ReportCacheProperties(
+                        100,
+                        Duration.ofSeconds(30),
+                        Duration.ofMinutes(10),
+                        Map.of("short", Duration.ofSeconds(5)));
+        cache = new ReportCache(properties, clock, pendingRefreshes::add);
+    }
+
+    private Integer load(ReportKey key) {
+        return cache.get(key, computations::incrementAndGet);
+    }
+
+    private void runRefreshes() {
+        var refreshes = List.copyOf(pendingRefreshes);
+        pendingRefreshes.clear();
+        refreshes.forEach(Runnable::run);
+    }
+
+    @Test
+    void freshSnapshotShouldBeReused() {
+        assertThat(load(ReportKey.of("report", 10))).isEqualTo(1);
+        clock.now = clock.now.plusSeconds(29);
+
+        assertThat(load(ReportKey.of("report", 10))).isEqualTo(1);
+        assertThat(pendingRefreshes).isEmpty();
+    }
+
+    @Test
+    void parametersShouldBePartOfTheKey() {
+        assertThat(load(ReportKey.of("report", 10, null))).isEqualTo(1);
+        assertThat(load(ReportKey.of("report", 5, null))).isEqualTo(2);
+        assertThat(load(ReportKey.of("report", 10, null))).isEqualTo(1);
+    }
+
+    @Test
+    void expiredSnapshotShouldBeServedWhileRefreshing() {
+        load(ReportKey.of("short"));
+        clock.now = clock.now.plusSeconds(5);
+
+        assertThat(load(ReportKey.of("short"))).isEqualTo(1);
+        assertThat(load(ReportKey.of("short"))).isEqualTo(1);
+        assertThat(pendingRefreshes).hasSize(1);
+
+        runRefreshes();
+        assertThat(load(ReportKey.of("short"))).isEqualTo(2);
+    }
+
+    @Test
+    void invalidationShouldMarkSnapshotsStale() {
+        load(ReportKey.of("report"));
+        cache.invalidateAll();
+
+        assertThat(load(ReportKey.of("report"))).isEqualTo(1);
+        runRefreshes();
+        assertThat(load(ReportKey.of("report"))).isEqualTo(2);
+        assertThat(pendingRefreshes).isEmpty();
+    }
+}
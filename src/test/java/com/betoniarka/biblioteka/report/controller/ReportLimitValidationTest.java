@@ -0,0 +1,58 @@
+package com.betoniarka.biblioteka.report.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReportLimitValidationTest {
+
+    private static final String ADMIN =
+            "Basic " + Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                    "/report/appuser/most-active",
+                    "/report/book/most-reviewed",
+                    "/report/book/most-popular-categories",
+                    "/report/borrow/most-borrowed"
+            })
+    void limitOutsideOneToHundredShouldBeBadRequest(String uri) throws Exception {
+        for (var limit : new String[] {"0", "-1", "101", "2000000000"}) {
+            mockMvc.perform(get(uri).param("limit", limit).header(HttpHeaders.AUTHORIZATION, ADMIN))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get(uri).param("limit", "100").header(HttpHeaders.AUTHORIZATION, ADMIN))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deadDaysOutsideOneToTenYearsShouldBeBadRequest() throws Exception {
+        for (var days : new String[] {"0", "-1", "3651", "2000000000"}) {
+            mockMvc.perform(
+                            get("/report/appuser/dead")
+                                    .param("days", days)
+                                    .header(HttpHeaders.AUTHORIZATION, ADMIN))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(
+                        get("/report/appuser/dead").param("days", "3650").header(HttpHeaders.AUTHORIZATION, ADMIN))
+                .andExpect(status().isOk());
+    }
+}
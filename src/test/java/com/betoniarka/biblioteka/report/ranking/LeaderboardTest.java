@@ -0,0 +1,63 @@
+package com.betoniarka.biblioteka.report.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaderboardTest {
+
+    @Test
+    void quietRecountShouldBeTrusted() {
+        var board = new Leaderboard();
+
+        board.reload(() -> List.of(new RankedId(1, 3)));
+
+        assertThat(board.isStale()).isFalse();
+        assertThat(board.top(10)).containsExactly(new RankedId(1, 3));
+    }
+
+    @Test
+    void transactionInFlightDuringRecountShouldLeaveBoardStale() {
+        var board = new Leaderboard();
+        board.begin();
+
+        // the borrow may commit before or after the recount reads, so neither result can be trusted
+        board.reload(() -> List.of(new RankedId(1, 3)));
+        board.add(1, 1);
+        board.end();
+
+        assertThat(board.isStale()).isTrue();
+
+        board.reload(() -> List.of(new RankedId(1, 4)));
+        assertThat(board.isStale()).isFalse();
+        assertThat(board.top(10)).containsExactly(new RankedId(1, 4));
+    }
+
+    @Test
+    void changeDuringRecountShouldBeInstalledButLeftStale() {
+        var board = new Leaderboard();
+        int[] recounts = {0};
+
+        board.reload(
+                () -> {
+                    recounts[0]++;
+                    board.invalidate();
+                    return List.of(new RankedId(1, 2));
+                });
+
+        // one recount per read, like the aggregate query it stands in for
+        assertThat(recounts[0]).isEqualTo(1);
+        assertThat(board.isStale()).isTrue();
+        assertThat(board.top(10)).containsExactly(new RankedId(1, 2));
+    }
+
+    @Test
+    void topShouldNotExceedScoredIds() {
+        var board = new Leaderboard();
+        board.reload(() -> List.of(new RankedId(1, 1), new RankedId(2, 0)));
+
+        assertThat(board.top(Integer.MAX_VALUE)).containsExactly(new RankedId(1, 1));
+    }
+}
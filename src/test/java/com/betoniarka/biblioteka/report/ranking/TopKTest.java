@@ -0,0 +1,62 @@
+package com.betoniarka.biblioteka.report.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopKTest {
+
+    @Test
+    void shouldKeepBestEntriesOrderedByScoreThenId() {
+        var topK = new TopK(3);
+        topK.offer(1, 5);
+        topK.offer(2, 9);
+        topK.offer(3, 5);
+        topK.offer(4, 1);
+        topK.offer(5, 9);
+        topK.offer(6, 7);
+
+        assertThat(topK.result())
+                .containsExactly(new RankedId(2, 9), new RankedId(5, 9), new RankedId(6, 7));
+    }
+
+    @Test
+    void shouldMatchFullSort() {
+        var random = new Random(42);
+        var topK = new TopK(10);
+        var all =
+                IntStream.range(0, 1_000)
+                        .mapToObj(id -> new RankedId(id, random.nextInt(50)))
+                        .toList();
+        all.forEach(entry -> topK.offer(entry.id(), entry.score()));
+
+        var expected =
+                all.stream()
+                        .sorted(
+                                (a, b) ->
+                                        a.score() != b.score()
+                                                ? Long.compare(b.score(), a.score())
+                                                : Long.compare(a.id(), b.id()))
+                        .limit(10)
+                        .toList();
+        assertThat(topK.result()).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldReturnFewerEntriesThanK() {
+        var topK = new TopK(5);
+        topK.offer(7, 1);
+
+        assertThat(topK.result()).containsExactly(new RankedId(7, 1));
+        assertThat(new TopK(0).result()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectNegativeK() {
+        assertThatThrownBy(() -> new TopK(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,63 +1,62 @@
 package com.betoniarka.biblioteka.report.service;
 
 import com.betoniarka.biblioteka.appuser.AppUser;
-import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
 import com.betoniarka.biblioteka.borrow.Borrow;
-import com.betoniarka.biblioteka.borrow.BorrowRepository;
 import com.betoniarka.biblioteka.report.dto.AppUserSummaryReportDto;
 import com.betoniarka.biblioteka.report.dto.AppUserWithOverdueDto;
 import com.betoniarka.biblioteka.report.dto.DeadAppUserAccountDto;
 import com.betoniarka.biblioteka.report.dto.MostActiveAppUserDto;
+import com.betoniarka.biblioteka.report.ranking.RankingService;
+import com.betoniarka.biblioteka.report.repository.AppUserReportRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mockito;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
+@Transactional
 @Import(ReportServiceTestConfiguration.class)
-@ExtendWith(MockitoExtension.class)
 class AppUserReportServiceTest {
 
     @Autowired
-    @Qualifier("userRepoContentMock")
-    List<AppUser> userRepoContentMock;
+    ReportFixture reportFixture;
 
     @Autowired
-    @Qualifier("borrowRepoContentMock")
-    List<Borrow> borrowRepoContentMock;
+    EntityManager entityManager;
+
+    @Autowired
+    AppUserReportRepository reportRepository;
+
+    @Autowired
+    RankingService rankingService;
 
     @Autowired
     @Qualifier("clockReportMock")
     Clock clockReportMock;
 
-    @MockitoBean
-    AppUserRepository userRepository;
-    @MockitoBean
-    BorrowRepository borrowRepository;
+    ReportFixture.Data data;
 
     AppUserReportService service;
 
     @BeforeEach
     void setup() {
-        Mockito.when(this.userRepository.findAll()).thenReturn(userRepoContentMock);
-        Mockito.when(this.borrowRepository.findAll()).thenReturn(borrowRepoContentMock);
-        Mockito.when(borrowRepository.count()).thenReturn((long) borrowRepoContentMock.size());
+        this.data = reportFixture.load();
+        rankingService.invalidateAll();
 
-        this.service =
-                new AppUserReportService(this.userRepository, this.borrowRepository, clockReportMock);
+        this.service = new AppUserReportService(this.reportRepository, rankingService, clockReportMock);
     }
 
     @Test
@@ -75,9 +74,9 @@ class AppUserReportServiceTest {
         List<AppUserWithOverdueDto> overdueList = service.getOverdue();
 
         assertThat(overdueList)
-                .extracting(AppUserWithOverdueDto::userId)
-                .contains(4L, 7L, 8L)
-                .doesNotContain(6L);
+                .extracting(AppUserWithOverdueDto::username)
+                .contains("ckent", "tstark", "srogers")
+                .doesNotContain("p.parker");
 
         assertThat(overdueList).allMatch(d -> d.overdueDays() > 0);
     }
@@ -92,20 +91,21 @@ class AppUserReportServiceTest {
     }
 
     @Test
-    void getDeadShouldCalculateInActiveDaysCorrectly(
-            @Autowired @Qualifier("clockReportMock") Clock clock) {
+    void getDeadShouldCalculateInActiveDaysCorrectly() {
         long thresholdDays = 7;
         List<DeadAppUserAccountDto> deadUsers = service.getDead(thresholdDays);
 
+        assertThat(deadUsers).isNotEmpty();
         deadUsers.forEach(
                 dto -> {
-                    AppUser user =
-                            userRepository.findAll().stream()
-                                    .filter(u -> u.getId() == dto.userId())
-                                    .findFirst()
+                    AppUser user = data.user(dto.username());
+                    Instant lastReturned =
+                            user.getBorrows().stream()
+                                    .map(Borrow::getReturnedAt)
+                                    .max(Comparator.naturalOrder())
                                     .orElseThrow();
-                    Instant lastReturned = user.getBorrows().getLast().getReturnedAt();
-                    long expectedDays = Math.abs(Duration.between(lastReturned, Instant.now(clock)).toDays());
+                    long expectedDays =
+                            Math.abs(Duration.between(lastReturned, Instant.now(clockReportMock)).toDays());
                     assertThat(dto.inActiveDays()).isEqualTo(expectedDays);
                 });
     }
@@ -118,7 +118,7 @@ class AppUserReportServiceTest {
 
     @Test
     void getMostActiveShouldReturnEmptyListIfNoUsers() {
-        Mockito.when(userRepository.findAll()).thenReturn(List.of());
+        reportFixture.clear();
         List<MostActiveAppUserDto> mostActive = service.getMostActive(5);
         assertThat(mostActive).isEmpty();
     }
@@ -142,10 +142,9 @@ class AppUserReportServiceTest {
         int limit = 3;
         List<MostActiveAppUserDto> mostActive = service.getMostActive(limit);
 
-        List<Long> expectedTopUsers = List.of(1L, 2L, 4L);
         assertThat(mostActive)
-                .extracting(MostActiveAppUserDto::userId)
-                .containsExactlyInAnyOrderElementsOf(expectedTopUsers);
+                .extracting(MostActiveAppUserDto::username)
+                .containsExactlyInAnyOrder("jdoe", "asmith", "ckent");
 
         mostActive.forEach(dto -> assertThat(dto.totalBorrows()).isGreaterThan(0));
     }
@@ -154,22 +153,27 @@ class AppUserReportServiceTest {
     void getSummaryShouldReflectDifferentUsers() {
         AppUserSummaryReportDto summary = service.getSummary();
 
-        assertThat(summary.totalAppUsers()).isEqualTo(8);
+        // fixture users plus the admin account created by DataSeeder
+        assertThat(summary.totalAppUsers()).isEqualTo(9);
         assertThat(summary.totalAppUsersWithBorrows()).isEqualTo(5);
-        assertThat(summary.totalAppUsersWithoutBorrows()).isEqualTo(3);
+        assertThat(summary.totalAppUsersWithoutBorrows()).isEqualTo(4);
         assertThat(summary.totalAppUsersWithOverdue()).isEqualTo(3);
         assertThat(summary.averageBorrowsPerAppUser()).isGreaterThan(0);
-        assertThat(summary.activeAppUsersLastWeek()).isEqualTo(5);
-        assertThat(summary.activeAppUsersLastMonth()).isEqualTo(6);
+        // 4 + 5 + 6 + 4 whole days overdue on the returned borrows, over 9 users
+        assertThat(summary.averageOverdueDaysPerAppUser()).isEqualTo(2);
+        assertThat(summary.activeAppUsersLastWeek()).isEqualTo(6);
+        assertThat(summary.activeAppUsersLastMonth()).isEqualTo(7);
     }
 
     @Test
     void getSummaryShouldNotCrashWhenUserHasNoBorrows() {
-        AppUser userWithoutBorrows = new AppUser(99L);
+        reportFixture.clear();
+        AppUser userWithoutBorrows = new AppUser();
         userWithoutBorrows.setUsername("noborrows");
-        Mockito.when(userRepository.findAll()).thenReturn(List.of(userWithoutBorrows));
-        Mockito.when(borrowRepository.count()).thenReturn(0L);
-        Mockito.when(borrowRepository.findAll()).thenReturn(List.of());
+        userWithoutBorrows.setEmail("noborrows@example.com");
+        userWithoutBorrows.setPassword("password123");
+        userWithoutBorrows.setRole(AppUserRole.APP_USER);
+        entityManager.persist(userWithoutBorrows);
 
         AppUserSummaryReportDto summary = service.getSummary();
         assertThat(summary.totalAppUsers()).isEqualTo(1);
@@ -1,70 +1,64 @@
 package com.betoniarka.biblioteka.report.service;
 
-import com.betoniarka.biblioteka.appuser.AppUser;
-import com.betoniarka.biblioteka.appuser.AppUserRepository;
-import com.betoniarka.biblioteka.book.Book;
 import com.betoniarka.biblioteka.book.BookRepository;
-import com.betoniarka.biblioteka.borrow.Borrow;
-import com.betoniarka.biblioteka.borrow.BorrowRepository;
 import com.betoniarka.biblioteka.report.dto.BookAvailabilityDto;
 import com.betoniarka.biblioteka.report.dto.BookSummaryReportDto;
 import com.betoniarka.biblioteka.report.dto.MostPopularBookCategoryDto;
 import com.betoniarka.biblioteka.report.dto.MostReviewedBookDto;
+import com.betoniarka.biblioteka.report.ranking.RankingService;
+import com.betoniarka.biblioteka.report.repository.BookReportRepository;
+import com.betoniarka.biblioteka.statistics.BorrowRollupService;
+import com.betoniarka.biblioteka.statistics.LibraryStatisticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mockito;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
+@Transactional
 @Import(ReportServiceTestConfiguration.class)
-@ExtendWith(MockitoExtension.class)
 public class BookReportServiceTest {
 
     @Autowired
-    @Qualifier("userRepoContentMock")
-    List<AppUser> userRepoContentMock;
+    ReportFixture reportFixture;
 
     @Autowired
-    @Qualifier("bookRepoContentMock")
-    List<Book> bookRepoContentMock;
+    BookRepository bookRepository;
 
     @Autowired
-    @Qualifier("borrowRepoContentMock")
-    List<Borrow> borrowRepoContentMock;
+    BookReportRepository reportRepository;
 
-    @MockitoBean
-    AppUserRepository userRepository;
-    @MockitoBean
-    BookRepository bookRepository;
-    @MockitoBean
-    BorrowRepository borrowRepository;
+    @Autowired
+    LibraryStatisticsService statisticsService;
+
+    @Autowired
+    BorrowRollupService rollupService;
+
+    @Autowired
+    RankingService rankingService;
 
     BookReportService service;
 
     @BeforeEach
     void setup() {
-        Mockito.when(this.userRepository.findAll()).thenReturn(userRepoContentMock);
-        Mockito.when(this.bookRepository.findAll()).thenReturn(bookRepoContentMock);
-        Mockito.when(this.borrowRepository.findAll()).thenReturn(borrowRepoContentMock);
-        Mockito.when(borrowRepository.count()).thenReturn((long) borrowRepoContentMock.size());
+        reportFixture.load();
+        statisticsService.rebuild();
+        rollupService.rebuild();
+        rankingService.invalidateAll();
 
         this.service =
-                new BookReportService(this.userRepository, this.bookRepository, this.borrowRepository);
+                new BookReportService(this.reportRepository, this.statisticsService, rankingService);
     }
 
     @Test
     void numberOfBooksInRepoShouldBeEqualToNine() {
-        assertThat(bookRepository.findAll()).hasSize(9);
+        assertThat(bookRepository.count()).isEqualTo(9);
     }
 
     @Test
@@ -72,13 +66,19 @@ public class BookReportServiceTest {
         List<BookAvailabilityDto> availabilityList = service.getAvailability();
         assertThat(availabilityList)
                 .hasSize(7)
-                .extracting(BookAvailabilityDto::bookId)
-                .containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 6L, 7L, 8L);
+                .extracting(BookAvailabilityDto::title)
+                .containsExactlyInAnyOrder(
+                        "Władca Pierścieni",
+                        "Harry Potter i Kamień Filozoficzny",
+                        "Hobbit",
+                        "Gra o Tron",
+                        "Rok 1984",
+                        "Zbrodnia i kara",
+                        "Pieski małe dwa");
     }
 
     @Test
     void getMostPopularCategoriesForLimitTwoShouldReturnFantasyAndForKids() {
-        int threshold = 2;
         List<MostPopularBookCategoryDto> popularCategories = service.getMostPopularCategories(2);
         assertThat(popularCategories)
                 .extracting(MostPopularBookCategoryDto::categoryName)
@@ -90,9 +90,10 @@ public class BookReportServiceTest {
 
     @Test
     void getMostReviewedForLimitOneShouldReturnCrimeAndPunishment() {
-        int threshold = 1;
         List<MostReviewedBookDto> mostReviewedBooks = service.getMostReviewed(1);
-        assertThat(mostReviewedBooks).extracting(MostReviewedBookDto::bookId).containsExactly(7L);
+        assertThat(mostReviewedBooks)
+                .extracting(MostReviewedBookDto::title)
+                .containsExactly("Zbrodnia i kara");
 
         assertThat(mostReviewedBooks)
                 .extracting(MostReviewedBookDto::totalReviews)
@@ -103,8 +104,8 @@ public class BookReportServiceTest {
     void getSummaryShouldReturnOverallStatistics() {
         BookSummaryReportDto summary = service.getSummary();
 
-        assertThat(summary.totalCopies()).isEqualTo(22);
-        assertThat(summary.availableCopies()).isEqualTo(17);
+        assertThat(summary.totalCopies()).isEqualTo(23);
+        assertThat(summary.availableCopies()).isEqualTo(18);
         assertThat(summary.currentlyBorrowedCopies()).isEqualTo(5);
         assertThat(summary.categoriesPerBook()).isEqualTo(0);
         assertThat(summary.borrowsPerCopy()).isEqualTo(0);
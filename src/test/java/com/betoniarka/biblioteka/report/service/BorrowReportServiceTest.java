@@ -1,60 +1,69 @@
 package com.betoniarka.biblioteka.report.service;
 
-import com.betoniarka.biblioteka.appuser.AppUser;
-import com.betoniarka.biblioteka.appuser.AppUserRepository;
 import com.betoniarka.biblioteka.borrow.Borrow;
-import com.betoniarka.biblioteka.borrow.BorrowRepository;
 import com.betoniarka.biblioteka.report.dto.BorrowSummaryReportDto;
 import com.betoniarka.biblioteka.report.dto.MostBorrowedBookDto;
+import com.betoniarka.biblioteka.report.ranking.RankingService;
+import com.betoniarka.biblioteka.report.repository.BorrowReportRepository;
+import com.betoniarka.biblioteka.statistics.BorrowRollupService;
+import com.betoniarka.biblioteka.statistics.LibraryStatisticsService;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mockito;
-import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
-import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
+@Transactional
 @Import(ReportServiceTestConfiguration.class)
-@ExtendWith(MockitoExtension.class)
 public class BorrowReportServiceTest {
 
     @Autowired
-    @Qualifier("userRepoContentMock")
-    List<AppUser> userRepoContentMock;
+    ReportFixture reportFixture;
 
     @Autowired
-    @Qualifier("borrowRepoContentMock")
-    List<Borrow> borrowRepoContentMock;
+    EntityManager entityManager;
+
+    @Autowired
+    BorrowReportRepository reportRepository;
+
+    @Autowired
+    LibraryStatisticsService statisticsService;
+
+    @Autowired
+    BorrowRollupService rollupService;
+
+    @Autowired
+    RankingService rankingService;
 
     @Autowired
     @Qualifier("clockReportMock")
     Clock clock;
 
-    @MockitoBean
-    AppUserRepository userRepository;
-    @MockitoBean
-    BorrowRepository borrowRepository;
+    ReportFixture.Data data;
 
     BorrowReportService service;
 
     @BeforeEach
     void setup() {
-        Mockito.when(this.userRepository.findAll()).thenReturn(userRepoContentMock);
-        Mockito.when(this.borrowRepository.findAll()).thenReturn(borrowRepoContentMock);
-        Mockito.when(borrowRepository.count()).thenReturn((long) borrowRepoContentMock.size());
-        Mockito.when(userRepository.count()).thenReturn((long) userRepoContentMock.size());
+        this.data = reportFixture.load();
+        statisticsService.rebuild();
+        rollupService.rebuild();
+        rankingService.invalidateAll();
 
-        this.service = new BorrowReportService(this.userRepository, this.borrowRepository);
+        this.service =
+                new BorrowReportService(
+                        this.reportRepository, this.statisticsService, rankingService, clock);
     }
 
     @Test
@@ -63,21 +72,52 @@ public class BorrowReportServiceTest {
 
         assertThat(summary.totalBorrows()).isEqualTo(11);
         assertThat(summary.currentBorrows()).isEqualTo(5);
-        assertThat(summary.borrowsLastWeek()).isEqualTo(1);
+        // 24 + 35 + 21 + 5 + 9 + 9 whole days of the returned borrows, over 9 users
+        assertThat(summary.averageBorrowDurationDays()).isEqualTo(11);
+        assertThat(summary.borrowsLastWeek()).isEqualTo(3);
         assertThat(summary.borrowsLastMonth()).isEqualTo(4);
         assertThat(summary.borrowsLastYear()).isEqualTo(7);
     }
 
+    @Test
+    void returnedBorrowDaysShouldRoundDownEachBorrow() {
+        // the leftover hours (+2h, +2h, +23h, +22h) would add up to 2 more days on the total
+        assertThat(statisticsService.current().returnedBorrowDays()).isEqualTo(103);
+    }
+
+    @Test
+    void lastWeekShouldCountWholeUtcDaysFromSevenDaysBeforeToday() {
+        // today is 2026-01-07 UTC, so the last week starts on 2025-12-31 at midnight
+        borrow(Instant.parse("2025-12-31T00:00:00Z"));
+        borrow(Instant.parse("2025-12-30T23:59:59Z"));
+        rollupService.rebuild();
+
+        assertThat(service.getSummary().borrowsLastWeek()).isEqualTo(4);
+    }
+
     @Test
     void getMostBorrowedShouldReturn() {
         int limit = 1;
         Instant from = Instant.parse("2024-01-10T10:00:00Z");
         Instant to = Instant.now(clock);
         List<MostBorrowedBookDto> mostBorrowed = service.getMostBorrowed(limit, from, to);
-        assertThat(mostBorrowed).extracting(MostBorrowedBookDto::bookId).containsExactly(2L);
+        assertThat(mostBorrowed)
+                .extracting(MostBorrowedBookDto::bookId)
+                .containsExactly(data.book("Harry Potter i Kamień Filozoficzny").getId());
         assertThat(mostBorrowed)
                 .extracting(MostBorrowedBookDto::title)
                 .containsExactly("Harry Potter i Kamień Filozoficzny");
         assertThat(mostBorrowed).extracting(MostBorrowedBookDto::totalBorrows).containsExactly(2L);
     }
+
+    private void borrow(Instant borrowedAt) {
+        Borrow borrow = new Borrow();
+        borrow.setAppUser(data.user("jdoe"));
+        borrow.setBook(data.book("Harry Potter i Kamień Filozoficzny"));
+        borrow.setBorrowedAt(borrowedAt);
+        borrow.setBorrowDuration(Duration.ofDays(7));
+        borrow.setReturnedAt(borrowedAt.plus(Duration.ofDays(1)));
+        entityManager.persist(borrow);
+        entityManager.flush();
+    }
 }
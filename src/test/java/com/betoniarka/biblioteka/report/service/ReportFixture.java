@@ -0,0 +1,321 @@
+package com.betoniarka.biblioteka.report.service;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.appuser.AppUserService;
+import com.betoniarka.biblioteka.book.Book;
+import com.betoniarka.biblioteka.borrow.Borrow;
+import com.betoniarka.biblioteka.category.Category;
+import com.betoniarka.biblioteka.review.Review;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Persists the report test data set. Entities are created from scratch on every {@link #load()}
+ * call, so each test gets its own managed copies that are rolled back with the test transaction.
+ */
+@RequiredArgsConstructor
+class ReportFixture {
+
+    private final EntityManager entityManager;
+    private final AppUserService appUserService;
+
+    /*********************************************************************************************************************/
+
+    private static AppUser createUser(
+            String username, String firstname, String lastname, String email, AppUserRole role) {
+        AppUser u = new AppUser();
+        u.setUsername(username);
+        u.setFirstname(firstname);
+        u.setLastname(lastname);
+        u.setEmail(email);
+        u.setPassword("password123");
+        u.setRole(role);
+        return u;
+    }
+
+    private static Category createCategory(String name) {
+        Category c = new Category();
+        c.setName(name);
+        return c;
+    }
+
+    private static Book createBook(String title, int count, List<Category> categories) {
+        Book b = new Book();
+        b.setTitle(title);
+        b.setCount(count);
+        b.setCategories(categories);
+        return b;
+    }
+
+    private static Review createReview(int rating, String comment, AppUser user, Book book) {
+        Review r = new Review();
+        r.setRating(rating);
+        r.setComment(comment);
+        r.setBook(book);
+        r.setAppUser(user);
+        return r;
+    }
+
+    private static Borrow createBorrow(
+            AppUser user,
+            Book book,
+            Instant borrowedAt,
+            Duration borrowDuration,
+            Instant returnedAt) {
+        Borrow b = new Borrow();
+        b.setAppUser(user);
+        b.setBook(book);
+        b.setBorrowedAt(borrowedAt);
+        b.setBorrowDuration(borrowDuration);
+        b.setReturnedAt(returnedAt);
+        if (returnedAt == null) book.setCount(book.getCount() - 1);
+        return b;
+    }
+
+    Data load() {
+        var categories = categories();
+        var books = books(categories);
+        var users = users();
+
+        categories.forEach(entityManager::persist);
+        books.forEach(entityManager::persist);
+        users.forEach(entityManager::persist);
+
+        var reviews = reviews(users, books);
+        var borrows = borrows(users, books);
+
+        reviews.forEach(entityManager::persist);
+        borrows.forEach(entityManager::persist);
+        entityManager.flush();
+        appUserService.rebuildActiveBorrows();
+
+        return new Data(users, categories, books, reviews, borrows);
+    }
+
+    void clear() {
+        entityManager.createQuery("delete from Review").executeUpdate();
+        entityManager.createQuery("delete from Borrow").executeUpdate();
+        entityManager.createQuery("delete from AppUser").executeUpdate();
+        entityManager.clear();
+    }
+
+    private static List<AppUser> users() {
+        return List.of(
+                createUser("jdoe", "John", "Doe", "jdoe@example.com", AppUserRole.APP_USER),
+                createUser("asmith", "Anna", "Smith", "asmith@example.com", AppUserRole.APP_USER),
+                createUser("bwayne", "Bruce", "Wayne", "bwayne@example.com", AppUserRole.ADMIN),
+                createUser("ckent", "Clark", "Kent", "ckent@example.com", AppUserRole.APP_USER),
+                createUser("dprince", "Diana", "Prince", "dprince@example.com", AppUserRole.APP_USER),
+                createUser("p.parker", "Peter", "Parker", "pparker@example.com", AppUserRole.APP_USER),
+                createUser("tstark", "Tony", "Stark", "tstark@example.com", AppUserRole.ADMIN),
+                createUser("srogers", "Steve", "Rogers", "srogers@example.com", AppUserRole.APP_USER));
+    }
+
+    private static List<Category> categories() {
+        return List.of(
+                createCategory("Fantastyka"),
+                createCategory("Kryminał"),
+                createCategory("Science-Fiction"),
+                createCategory("Dla dzieci"),
+                createCategory("Dramat"),
+                createCategory("Komedia"),
+                createCategory("Dla dorosłych"),
+                createCategory("Nauka"),
+                createCategory("Zdrowie"),
+                createCategory("Plastyka"),
+                createCategory("Muzyka"),
+                createCategory("Historia"),
+                createCategory("Biografia"));
+    }
+
+    private static List<Book> books(List<Category> categories) {
+        List<Book> books =
+                List.of(
+                        createBook("Władca Pierścieni", 3, List.of(categories.get(0))),
+                        createBook(
+                                "Harry Potter i Kamień Filozoficzny",
+                                5,
+                                List.of(categories.get(0), categories.get(3))),
+                        createBook("Hobbit", 2, List.of(categories.get(0))),
+                        createBook("Gra o Tron", 4, List.of(categories.get(2))),
+                        createBook("Lalka", 2, List.of(categories.get(4))), // oba egzemplarze wypożyczone
+                        createBook("Rok 1984", 3, List.of(categories.get(4))),
+                        createBook("Zbrodnia i kara", 2, List.of(categories.get(1))),
+                        createBook("Pieski małe dwa", 2, List.of(categories.get(3))),
+                        createBook("Koziołek Matołek", 0, List.of(categories.get(3))));
+
+        books.forEach(
+                b -> {
+                    b.getCategories().forEach(category -> category.getBooks().add(b));
+                });
+
+        return books;
+    }
+
+    private static List<Review> reviews(List<AppUser> users, List<Book> books) {
+        List<Review> reviews =
+                List.of(
+                        createReview(
+                                1,
+                                "Najgorsza lektura, nie polecam.",
+                                users.get(0),
+                                books.get(6)), // jdoe -> Zbrodnia i kara
+                        createReview(
+                                5,
+                                "Absolutna klasyka fantasy. Uwielbiam!",
+                                users.get(1),
+                                books.get(0)), // asmith -> Władca Pierścieni
+                        createReview(
+                                4,
+                                "Świetna książka, choć momentami za długa.",
+                                users.get(4),
+                                books.get(1)), // dprince -> Harry Potter
+                        createReview(
+                                3,
+                                "Ciekawa, ale spodziewałem się czegoś więcej.",
+                                users.get(5),
+                                books.get(3)), // p.parker -> Gra o Tron
+                        createReview(
+                                5,
+                                "Jedna z najlepszych książek, jakie czytałem.",
+                                users.get(2),
+                                books.get(5)), // bwayne -> Rok 1984
+                        createReview(
+                                4,
+                                "Świetna dla młodszych czytelników.",
+                                users.get(7),
+                                books.get(8)), // srogers -> Koziołek Matołek
+                        createReview(
+                                3,
+                                "Fajna książka, szkoda że tak mało egzemplarzy.",
+                                users.get(3),
+                                books.get(4)), // ckent -> Lalka
+                        createReview(
+                                5,
+                                "Trudna, ale bardzo wartościowa lektura.",
+                                users.get(6),
+                                books.get(6)) // tstark -> Zbrodnia i kara
+                );
+
+        reviews.forEach(
+                r -> {
+                    r.getBook().getReviews().add(r);
+                    r.getAppUser().getReviews().add(r);
+                });
+
+        return reviews;
+    }
+
+    private static List<Borrow> borrows(List<AppUser> users, List<Book> books) {
+
+        List<Borrow> borrows =
+                List.of(
+                        // 2023
+                        createBorrow(
+                                users.get(2),
+                                books.get(3),
+                                Instant.parse("2023-09-01T09:00:00Z"),
+                                Duration.ofDays(20),
+                                Instant.parse("2023-09-25T09:00:00Z")), // oddane w terminie
+                        createBorrow(
+                                users.get(3),
+                                books.get(4),
+                                Instant.parse("2023-12-15T08:00:00Z"),
+                                Duration.ofDays(10),
+                                null), // nadal aktywne, spóźnione
+
+                        // 2024
+                        createBorrow(
+                                users.get(0),
+                                books.get(1),
+                                Instant.parse("2024-06-15T10:00:00Z"),
+                                Duration.ofDays(30),
+                                Instant.parse("2024-07-20T12:00:00Z")), // oddane spóźnione
+                        createBorrow(
+                                users.get(1),
+                                books.get(2),
+                                Instant.parse("2024-12-20T08:00:00Z"),
+                                Duration.ofDays(15),
+                                Instant.parse("2025-01-10T10:00:00Z")), // oddane spóźnione
+
+                        // 2025 – oddane na czas
+                        createBorrow(
+                                users.get(0),
+                                books.get(0),
+                                Instant.parse("2025-12-01T10:00:00Z"),
+                                Duration.ofDays(7),
+                                Instant.parse("2025-12-07T09:00:00Z")), // oddane w terminie
+                        createBorrow(
+                                users.get(1),
+                                books.get(1),
+                                Instant.parse("2025-11-15T12:00:00Z"),
+                                Duration.ofDays(10),
+                                Instant.parse("2025-11-25T10:00:00Z")), // oddane w terminie
+
+                        // 2025-11 / 2025-12 – nadal aktywne, częściowo spóźnione
+                        createBorrow(
+                                users.get(7),
+                                books.get(7),
+                                Instant.parse("2025-11-30T15:00:00Z"),
+                                Duration.ofDays(20),
+                                null), // nadal aktywne, spóźnione
+                        createBorrow(
+                                users.get(6),
+                                books.get(6),
+                                Instant.parse("2025-12-25T09:00:00Z"),
+                                Duration.ofDays(10),
+                                null), // nadal aktywne, spóźnione
+
+                        // 2026 – nadal aktywne, w terminie
+                        createBorrow(
+                                users.get(4),
+                                books.get(4),
+                                Instant.parse("2026-01-03T10:00:00Z"),
+                                Duration.ofDays(10),
+                                null), // nadal aktywne, w terminie
+                        createBorrow(
+                                users.get(5),
+                                books.get(5),
+                                Instant.parse("2026-01-05T12:00:00Z"),
+                                Duration.ofDays(7),
+                                null), // nadal aktywne, w terminie
+
+                        // 2026 – oddane spóźnione
+                        createBorrow(
+                                users.get(3),
+                                books.get(3),
+                                Instant.parse("2026-01-01T08:00:00Z"),
+                                Duration.ofDays(5),
+                                Instant.parse("2026-01-10T08:00:00Z")) // oddane spóźnione
+                );
+
+        borrows.forEach(
+                b -> {
+                    b.getAppUser().getBorrows().add(b);
+                    b.getBook().getBorrowedBy().add(b);
+                });
+
+        return borrows;
+    }
+
+    record Data(
+            List<AppUser> users,
+            List<Category> categories,
+            List<Book> books,
+            List<Review> reviews,
+            List<Borrow> borrows) {
+
+        AppUser user(String username) {
+            return users.stream().filter(u -> u.getUsername().equals(username)).findFirst().orElseThrow();
+        }
+
+        Book book(String title) {
+            return books.stream().filter(b -> b.getTitle().equals(title)).findFirst().orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.betoniarka.biblioteka.review;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import com.betoniarka.biblioteka.author.AuthorService;
+import com.betoniarka.biblioteka.author.dto.AuthorCreateDto;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import com.betoniarka.biblioteka.pagination.Keyset;
+import com.betoniarka.biblioteka.review.dto.ReviewCreateDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class ReviewServiceTest {
+
+    @Autowired
+    ReviewService reviewService;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    AuthorService authorService;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void projectedReviewShouldMatchTheMappedEntity() {
+        var reader = new AppUser();
+        reader.setUsername("reader");
+        reader.setFirstname("Stanisław");
+        reader.setLastname("Wokulski");
+        reader.setEmail("reader@example.com");
+        reader.setPassword("password123");
+        reader.setRole(AppUserRole.APP_USER);
+        appUserRepository.save(reader);
+        var prus = authorService.create(new AuthorCreateDto("Bolesław Prus"));
+        var lalka = bookService.create(new BookCreateDto("Lalka", 2, prus.id(), Set.of()));
+        borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(14), lalka.id(), reader.getId()));
+
+        var created =
+                reviewService.createReview(new ReviewCreateDto(5, "Świetna", reader.getId(), lalka.id()));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(reviewService.getReviewById(created.id())).isEqualTo(created);
+        assertThat(reviewService.getReviews(PageRequest.of(0, 100)).content()).contains(created);
+        assertThat(reviewService.getReviewsAfter(new Keyset(created.id() - 1, 1)).content())
+                .containsExactly(created);
+    }
+
+    @Test
+    void reviewWithoutUserOrBookShouldStillBeListed() {
+        var orphan = new Review();
+        orphan.setRating(3);
+        orphan.setComment("Bez autora");
+        entityManager.persist(orphan);
+        entityManager.flush();
+        entityManager.clear();
+
+        var dto = reviewService.getReviewById(orphan.getId());
+        assertThat(dto.appUser()).isNull();
+        assertThat(dto.book()).isNull();
+
+        var page = reviewService.getReviews(PageRequest.of(0, 100));
+        assertThat(page.content()).contains(dto);
+        assertThat(page.totalElements()).isEqualTo(page.content().size());
+    }
+}
@@ -0,0 +1,142 @@
+package com.betoniarka.biblioteka.security;
+
+import com.betoniarka.biblioteka.appuser.AppUser;
+import com.betoniarka.biblioteka.appuser.AppUserCredentialsChangedEvent;
+import com.betoniarka.biblioteka.appuser.AppUserRepository;
+import com.betoniarka.biblioteka.appuser.AppUserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class AuthenticationCacheTest {
+
+    @Autowired
+    CachingAuthenticationProvider provider;
+
+    @Autowired
+    AuthTokenService tokenService;
+
+    @Autowired
+    AppUserDetailsService userDetailsService;
+
+    @Autowired
+    AppUserRepository appUserRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    CredentialInvalidations invalidations;
+
+    AppUser reader;
+
+    @BeforeEach
+    void setup() {
+        reader = new AppUser();
+        reader.setUsername("cachedreader");
+        reader.setEmail("cachedreader@example.com");
+        reader.setPassword(passwordEncoder.encode("secret123"));
+        reader.setRole(AppUserRole.APP_USER);
+        reader = appUserRepository.save(reader);
+    }
+
+    private static UsernamePasswordAuthenticationToken credentials(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("cachedreader", password);
+    }
+
+    private void changePassword() {
+        reader.setPassword(passwordEncoder.encode("changed123"));
+        appUserRepository.save(reader);
+    }
+
+    @Test
+    void principalShouldCarryIdAndRoleFromTheProjection() {
+        assertThat(userDetailsService.loadUserByUsername("cachedreader"))
+                .isEqualTo(
+                        new AppUserDetails(
+                                reader.getId(),
+                                "cachedreader",
+                                reader.getPassword(),
+                                AppUserRole.APP_USER,
+                                invalidations.current()));
+    }
+
+    @Test
+    void repeatedLoginShouldBeServedFromTheCache() {
+        var first = provider.authenticate(credentials("secret123"));
+        var second = provider.authenticate(credentials("secret123"));
+
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+        assertThatThrownBy(() -> provider.authenticate(credentials("wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void credentialChangeShouldDropCachedLoginAndTokens() {
+        var principal = (AppUserDetails) provider.authenticate(credentials("secret123")).getPrincipal();
+        var token = tokenService.issue(principal).token();
+        assertThat(tokenService.resolve(token)).contains(principal);
+
+        changePassword();
+        provider.onCredentialsChanged(new AppUserCredentialsChangedEvent(reader.getId()));
+        tokenService.onCredentialsChanged(new AppUserCredentialsChangedEvent(reader.getId()));
+
+        assertThat(tokenService.resolve(token)).isEmpty();
+        assertThat(provider.authenticate(credentials("changed123")).isAuthenticated()).isTrue();
+        assertThatThrownBy(() -> provider.authenticate(credentials("secret123")))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void loginThatLoadedCredentialsBeforeAChangeShouldNotBeCached() {
+        var racing = new CachingAuthenticationProvider[1];
+        var changingDuringLoad =
+                new AppUserDetailsService(appUserRepository, invalidations) {
+                    @Override
+                    public AppUserDetails loadUserByUsername(String username) {
+                        var loaded = (AppUserDetails) super.loadUserByUsername(username);
+                        changePassword();
+                        racing[0].onCredentialsChanged(new AppUserCredentialsChangedEvent(reader.getId()));
+                        return loaded;
+                    }
+                };
+        racing[0] =
+                new CachingAuthenticationProvider(
+                        changingDuringLoad, passwordEncoder, invalidations, 100, Duration.ofMinutes(5));
+
+        assertThat(racing[0].authenticate(credentials("secret123")).isAuthenticated()).isTrue();
+        assertThatThrownBy(() -> racing[0].authenticate(credentials("secret123")))
+                .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void tokenShouldNotBeIssuedForAPrincipalLoadedBeforeAChange() {
+        var principal = (AppUserDetails) userDetailsService.loadUserByUsername("cachedreader");
+
+        changePassword();
+        tokenService.onCredentialsChanged(new AppUserCredentialsChangedEvent(reader.getId()));
+
+        assertThatThrownBy(() -> tokenService.issue(principal)).isInstanceOf(AccessDeniedException.class);
+        var reloaded = (AppUserDetails) userDetailsService.loadUserByUsername("cachedreader");
+        assertThat(tokenService.resolve(tokenService.issue(reloaded).token())).contains(reloaded);
+    }
+
+    @Test
+    void unknownTokenShouldNotResolve() {
+        assertThat(tokenService.resolve("not-a-token")).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package com.betoniarka.biblioteka.statistics;
+
+import com.betoniarka.biblioteka.appuser.AppUserFixture;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(AppUserFixture.class)
+@Transactional
+class BorrowRollupServiceTest {
+
+    @Autowired
+    BorrowRollupService rollupService;
+
+    @Autowired
+    BorrowDailyRollupRepository rollupRepository;
+
+    @Autowired
+    AppUserFixture appUserFixture;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    private List<String> buckets() {
+        entityManager.flush();
+        entityManager.clear();
+        return rollupRepository.findAll().stream()
+                .map(r -> r.getId().getBucketDate() + "/" + r.getId().getBookId() + "/"
+                        + r.getStarted() + "/" + r.getReturned() + "/" + r.getReturnedOverdue())
+                .sorted()
+                .toList();
+    }
+
+    @Test
+    void incrementalBucketsShouldMatchFullRebuild() {
+        rollupService.rebuild();
+
+        var reader = appUserFixture.createUser("reader");
+        var solaris = bookService.create(new BookCreateDto("Solaris", 2, null, Set.of()));
+        var borrow =
+                borrowService.borrowBook(
+                        new BorrowCreateDto(Duration.ofDays(14), solaris.id(), reader.getId()));
+        borrowService.borrowBook(
+                new BorrowCreateDto(Duration.ofDays(14), solaris.id(), appUserFixture.createUser("other").getId()));
+        borrowService.returnBook(borrow.id());
+
+        var incremental = buckets();
+        var today = BorrowRollupService.bucketOf(Instant.now());
+        assertThat(incremental).contains(today + "/" + solaris.id() + "/2/1/0");
+
+        rollupService.rebuild();
+        assertThat(buckets()).isEqualTo(incremental);
+    }
+}
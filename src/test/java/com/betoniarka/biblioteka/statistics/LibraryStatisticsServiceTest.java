@@ -0,0 +1,83 @@
+package com.betoniarka.biblioteka.statistics;
+
+import com.betoniarka.biblioteka.appuser.AppUserFixture;
+import com.betoniarka.biblioteka.book.BookService;
+import com.betoniarka.biblioteka.book.dto.BookCreateDto;
+import com.betoniarka.biblioteka.book.dto.BookUpdateDto;
+import com.betoniarka.biblioteka.borrow.BorrowService;
+import com.betoniarka.biblioteka.borrow.dto.BorrowCreateDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(AppUserFixture.class)
+@Transactional
+class LibraryStatisticsServiceTest {
+
+    @Autowired
+    LibraryStatisticsService statisticsService;
+
+    @Autowired
+    AppUserFixture appUserFixture;
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BorrowService borrowService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void incrementalCountersShouldMatchFullRebuild() {
+        statisticsService.rebuild();
+        var before = statisticsService.current();
+
+        var reader = appUserFixture.createUser("reader");
+        var solaris = bookService.create(new BookCreateDto("Solaris", 2, null, Set.of()));
+        var eden = bookService.create(new BookCreateDto("Eden", 1, null, Set.of()));
+        bookService.update(eden.id(), new BookUpdateDto(null, 3, null, null));
+
+        var borrow =
+                borrowService.borrowBook(
+                        new BorrowCreateDto(Duration.ofDays(14), solaris.id(), reader.getId()));
+        borrowService.borrowBook(new BorrowCreateDto(Duration.ofDays(14), eden.id(), reader.getId()));
+        borrowService.returnBook(borrow.id());
+
+        var incremental = statisticsService.current();
+        assertThat(incremental.totalBorrows()).isEqualTo(before.totalBorrows() + 2);
+        assertThat(incremental.currentBorrows()).isEqualTo(before.currentBorrows() + 1);
+        assertThat(incremental.availableCopies()).isEqualTo(before.availableCopies() + 4);
+        assertThat(incremental.neverBorrowedBooks()).isEqualTo(before.neverBorrowedBooks());
+
+        statisticsService.rebuild();
+        assertThat(statisticsService.current()).isEqualTo(incremental);
+    }
+
+    @Test
+    void deletingBookShouldSubtractItsCascadedBorrows() {
+        statisticsService.rebuild();
+        var before = statisticsService.current();
+
+        var reader = appUserFixture.createUser("reader");
+        var solaris = bookService.create(new BookCreateDto("Solaris", 2, null, Set.of()));
+        borrowService.borrowBook(
+                new BorrowCreateDto(Duration.ofDays(14), solaris.id(), reader.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        bookService.delete(solaris.id());
+
+        assertThat(statisticsService.current()).isEqualTo(before);
+    }
+}